@@ -4,7 +4,8 @@ import styled from 'styled-components';
 import { FaShoppingCart, FaArrowLeft, FaSpinner, FaExclamationCircle, FaTimes, FaCheck } from 'react-icons/fa';
 import { toast } from 'react-toastify';
 import orderService from '../../services/orderService';
-import { OrderResponse, OrderStatus, OrderStatusUpdateRequest } from '../../types';
+import productService from '../../services/productService';
+import { OrderResponse, OrderStatus, OrderStatusUpdateRequest, ProductResponse } from '../../types';
 
 // Stil bileşenleri
 const PageContainer = styled.div`
@@ -388,6 +389,7 @@ const OrderDetail: React.FC<OrderDetailProps> = () => {
   const { id } = useParams<{ id: string }>();
   const navigate = useNavigate();
   const [order, setOrder] = useState<OrderResponse | null>(null);
+  const [products, setProducts] = useState<Map<number, ProductResponse>>(new Map());
   const [loading, setLoading] = useState<boolean>(true);
   const [error, setError] = useState<string | null>(null);
   
@@ -404,6 +406,20 @@ const OrderDetail: React.FC<OrderDetailProps> = () => {
         const orderData = await orderService.getOrderById(parseInt(id));
         setOrder(orderData);
         setError(null);
+
+        // Sipariş öğelerinin ürünleri tek istekte getirilir; alınamazsa yalnızca ürün ID'leri gösterilir
+        try {
+          const lookups = await productService.getProductsByIds(orderData.orderItems.map(item => item.productId));
+          const productMap = new Map<number, ProductResponse>();
+          lookups.forEach(lookup => {
+            if (lookup.found && lookup.product) {
+              productMap.set(lookup.id, lookup.product);
+            }
+          });
+          setProducts(productMap);
+        } catch (productErr) {
+          console.error('Sipariş ürünleri alınamadı:', productErr);
+        }
       } catch (err: any) {
         console.error('Sipariş detayları alınırken hata:', err);
         setError(err.response?.data?.message || 'Sipariş detayları alınamadı');
@@ -536,6 +552,7 @@ const OrderDetail: React.FC<OrderDetailProps> = () => {
           <TableHead>
             <TableRow>
               <TableHeader>Ürün ID</TableHeader>
+              <TableHeader>Ürün</TableHeader>
               <TableHeader>Miktar</TableHeader>
             </TableRow>
           </TableHead>
@@ -543,6 +560,7 @@ const OrderDetail: React.FC<OrderDetailProps> = () => {
             {order.orderItems.map((item, index) => (
               <TableRow key={index}>
                 <TableCell>#{item.productId}</TableCell>
+                <TableCell>{products.get(item.productId)?.name ?? '-'}</TableCell>
                 <TableCell>{item.quantity}</TableCell>
               </TableRow>
             ))}
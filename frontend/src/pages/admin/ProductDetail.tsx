@@ -201,6 +201,10 @@ const ProductDetail: React.FC = () => {
   const navigate = useNavigate();
   const [product, setProduct] = useState<ProductCreateRequest | ProductUpdateRequest>(emptyProduct);
   const [errors, setErrors] = useState<ProductFormErrors>({});
+  // Düzenlenen ürünün okunduğu sürüm; arada değişmişse backend 409 döner
+  const [version, setVersion] = useState<number | undefined>(undefined);
+  // Form açıldığında görülen stok; backend yalnızca admin'in yaptığı farkı uygular, arada satılanlar korunur
+  const [originalStockQuantity, setOriginalStockQuantity] = useState<number | undefined>(undefined);
   
   // Yeni ürün sayfası için loading'i başlangıçta false yapalım
   const isNewProduct = id === 'new';
@@ -241,6 +245,8 @@ const ProductDetail: React.FC = () => {
             stockQuantity: response.stockQuantity,
             imageUrl: response.imageUrl
           });
+          setVersion(response.version);
+          setOriginalStockQuantity(response.stockQuantity);
           
           setError(null);
         } catch (err: any) {
@@ -385,7 +391,9 @@ const ProductDetail: React.FC = () => {
         
         const result = await productService.updateProduct(productId, {
           ...productData,
-          id: productId
+          id: productId,
+          originalStockQuantity,
+          version
         });
         
         console.log('Ürün başarıyla güncellendi:', result);
@@ -397,6 +405,10 @@ const ProductDetail: React.FC = () => {
       }
     } catch (err: any) {
       console.error('Genel bir hata oluştu:', err);
+      if (err.response?.status === 409) {
+        toast.error('Ürün siz düzenlerken başka biri tarafından güncellendi. Sayfayı yenileyip tekrar deneyin.');
+        return;
+      }
       const errorMessage = err.response?.data?.message || err.message || 'Bilinmeyen hata';
       console.error('Hata detayları:', errorMessage);
       toast.error(`İşlem sırasında hata: ${errorMessage}`);
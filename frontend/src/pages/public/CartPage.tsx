@@ -866,18 +866,17 @@ const CartPage: React.FC = () => {
           return;
         }
         
-        // Sepetteki her ürün için detayları getir
+        // Sepetteki ürünlerin detayları tek istekte getirilir; bulunamayan ürünler haritaya eklenmez
+        const lookups = await productService.getProductsByIds(cartData.items.map(item => item.productId));
         const productMap = new Map<number, ProductResponse>();
-        const productPromises = cartData.items.map(async (item) => {
-          try {
-            const product = await productService.getProductById(item.productId);
-            productMap.set(item.productId, product);
-          } catch (err) {
-            console.error(`Ürün detayları yüklenemedi: ID: ${item.productId}`, err);
+        lookups.forEach(lookup => {
+          if (lookup.found && lookup.product) {
+            productMap.set(lookup.id, lookup.product);
+          } else {
+            console.error(`Ürün detayları yüklenemedi: ID: ${lookup.id}`);
           }
         });
         
-        await Promise.all(productPromises);
         setProducts(productMap);
         setError(null);
       } catch (err) {
@@ -1,11 +1,11 @@
 import api from './api';
-import { OrderCreateRequest, OrderResponse, OrderStatusUpdateRequest } from '../types';
+import { OrderCreateRequest, OrderPageResponse, OrderResponse, OrderStatusUpdateRequest } from '../types';
 
 class OrderService {
-  // Kullanıcının siparişlerini getir
-  async getUserOrders(userId: number): Promise<OrderResponse[]> {
+  // Kullanıcının siparişlerini sayfa sayfa getir (yeniden eskiye); sonraki sayfa için nextCursor gönderilir
+  async getUserOrders(userId: number, cursor?: string, limit?: number): Promise<OrderPageResponse> {
     try {
-      const response = await api.get(`/orders/user/${userId}`);
+      const response = await api.get(`/orders/user/${userId}`, { params: { cursor, limit } });
       return response.data;
     } catch (error) {
       console.error('Kullanıcı siparişleri alınamadı:', error);
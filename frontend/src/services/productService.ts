@@ -1,5 +1,8 @@
 import api from './api';
-import { ProductResponse, ProductCreateRequest, ProductUpdateRequest } from '../types';
+import { ProductResponse, ProductLookupResponse, ProductCreateRequest, ProductUpdateRequest } from '../types';
+
+// Backend'deki ProductService.MAX_BATCH_IDS ile aynı
+const MAX_BATCH_IDS = 100;
 
 class ProductService {
   // Tüm ürünleri getir
@@ -28,6 +31,27 @@ class ProductService {
     }
   }
 
+  // Birden fazla ürünü tek istekte getir (sonuçlar istek sırasıyla, bulunamayanlar found: false).
+  // Tekrarlanan id'ler bir kez istenir; backend'in istek başına sınırını aşan listeler parçalara bölünür
+  async getProductsByIds(ids: number[]): Promise<ProductLookupResponse[]> {
+    const uniqueIds = Array.from(new Set(ids));
+    if (uniqueIds.length === 0) {
+      return [];
+    }
+    try {
+      const chunks: number[][] = [];
+      for (let i = 0; i < uniqueIds.length; i += MAX_BATCH_IDS) {
+        chunks.push(uniqueIds.slice(i, i + MAX_BATCH_IDS));
+      }
+      const responses = await Promise.all(chunks.map(chunk =>
+        api.get<ProductLookupResponse[]>('/products/batch', { params: { ids: chunk.join(',') } })));
+      return responses.flatMap(response => response.data);
+    } catch (error) {
+      console.error('Ürünler toplu olarak alınamadı:', error);
+      throw error;
+    }
+  }
+
   // Yeni ürün oluştur
   async createProduct(productData: ProductCreateRequest): Promise<ProductResponse> {
     try {
@@ -74,7 +98,9 @@ class ProductService {
         description: productData.description || '',
         price: productData.price, // BigDecimal olarak otomatik dönüşecek
         stockQuantity: productData.stockQuantity,
-        imageUrl: productData.imageUrl || ''
+        originalStockQuantity: productData.originalStockQuantity,
+        imageUrl: productData.imageUrl || '',
+        version: productData.version
       };
       
       console.log('Gönderilecek veri:', requestData);
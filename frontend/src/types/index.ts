@@ -53,6 +53,13 @@ export interface ProductResponse {
   price: number;
   stockQuantity: number;
   imageUrl?: string;
+  version?: number;
+}
+
+export interface ProductLookupResponse {
+  id: number;
+  found: boolean;
+  product?: ProductResponse;
 }
 
 export interface ProductCreateRequest {
@@ -69,7 +76,10 @@ export interface ProductUpdateRequest {
   description: string;
   price: number;
   stockQuantity: number;
+  // Formun açıldığı andaki stok; gönderilirse backend yalnızca farkı uygular
+  originalStockQuantity?: number;
   imageUrl?: string;
+  version?: number;
 }
 
 // Sipariş tipleri
@@ -99,6 +109,13 @@ export interface OrderResponse {
   status: OrderStatus;
 }
 
+export interface OrderPageResponse {
+  items: OrderResponse[];
+  nextCursor: string | null;
+  hasNext: boolean;
+  limit: number;
+}
+
 export interface OrderStatusUpdateRequest {
   status: OrderStatus;
 }
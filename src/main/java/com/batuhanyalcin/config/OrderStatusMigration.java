@@ -0,0 +1,96 @@
+package com.batuhanyalcin.config;
+
+import com.batuhanyalcin.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// orders.status (varchar) kolonunu orders.status_code (smallint) kolonuna taşır ve PostgreSQL'de açık
+// siparişler için kısmi indeksi oluşturur. Hibernate şemayı güncelledikten sonra çalışır; her açılışta
+// yeniden çalışması güvenlidir, eski kolon yoksa yalnızca indeks kontrol edilir
+@Component
+@DependsOn("entityManagerFactory")
+public class OrderStatusMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusMigration.class);
+
+    static final String OPEN_INDEX = "idx_orders_open";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    void migrate() {
+        if (columnExists("status")) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> copyLegacyStatus());
+        }
+        if (isPostgres()) {
+            String codes = OrderStatus.OPEN.stream()
+                    .map(status -> String.valueOf(status.getCode()))
+                    .collect(Collectors.joining(", "));
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + OPEN_INDEX
+                    + " ON orders (id) WHERE status_code IN (" + codes + ")");
+        }
+    }
+
+    private void copyLegacyStatus() {
+        if (!columnExists("status_code")) {
+            jdbcTemplate.execute("ALTER TABLE orders ADD COLUMN status_code SMALLINT");
+        }
+
+        StringBuilder mapping = new StringBuilder("CASE status");
+        for (OrderStatus status : OrderStatus.values()) {
+            mapping.append(" WHEN '").append(status.name()).append("' THEN ").append(status.getCode());
+        }
+        mapping.append(" END");
+        int copied = jdbcTemplate.update("UPDATE orders SET status_code = " + mapping
+                + " WHERE status_code IS NULL");
+
+        // Bilinmeyen bir durum sessizce kaybolmasın; uygulama açılmaz, eski kolon yerinde kalır
+        Integer unmapped = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE status_code IS NULL", Integer.class);
+        if (unmapped != null && unmapped > 0) {
+            throw new IllegalStateException("Sipariş durumları taşınamadı, tanınmayan durumda " + unmapped + " sipariş var");
+        }
+
+        jdbcTemplate.execute("ALTER TABLE orders ALTER COLUMN status_code SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN status");
+        logger.info("Sipariş durumları status_code kolonuna taşındı: {} satır", copied);
+    }
+
+    private boolean columnExists(String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Diğer JDBC sorguları gibi niteliksiz tablo adı kullanılır; bağlantının geçerli şemasına bakılır
+            try (ResultSet columns = metaData.getColumns(null, connection.getSchema(),
+                    identifier(metaData, "orders"), identifier(metaData, column))) {
+                return columns.next();
+            }
+        }));
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,9 +3,12 @@ package com.batuhanyalcin.config;
 import com.batuhanyalcin.security.CustomUserDetailsService;
 import com.batuhanyalcin.security.JwtAuthenticationEntryPoint;
 import com.batuhanyalcin.security.JwtAuthenticationFilter;
+import com.batuhanyalcin.security.JwtProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -13,7 +16,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,6 +28,7 @@ import java.util.Arrays;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(JwtProperties.class)
 public class SecurityConfig {
 
     @Autowired
@@ -34,21 +37,20 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationEntryPoint unauthorizedHandler;
 
+    // BoundedPasswordEncoder: BCrypt istek iş parçacıklarında değil, sınırlı hash havuzunda çalışır
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -62,8 +64,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:5173", "http://localhost:5174"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With", "If-None-Match", "Idempotency-Key"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag", "Location", "Retry-After"));
         configuration.setMaxAge(3600L); // 1 saat ön bellekleme
         configuration.setAllowCredentials(true);
         
@@ -83,6 +85,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/api/test/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/products").permitAll() // Ürünleri listelemek için public erişim
+                .requestMatchers(HttpMethod.GET, "/api/products/page").permitAll() // Sayfalı ürün listesi
+                .requestMatchers(HttpMethod.GET, "/api/products/search").permitAll() // Ürün arama
+                .requestMatchers(HttpMethod.GET, "/api/products/batch").permitAll() // Çoklu ürün getirme
                 .requestMatchers("/api/products/{id}").permitAll() // Ürün detayı için public erişim
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/products/**").hasRole("ADMIN") // Admin ürün yönetim endpointleri
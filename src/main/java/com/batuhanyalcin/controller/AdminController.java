@@ -1,16 +1,27 @@
 package com.batuhanyalcin.controller;
 
+import com.batuhanyalcin.dto.order.OrderPageDTO;
 import com.batuhanyalcin.dto.order.OrderResponseDTO;
 import com.batuhanyalcin.dto.UserDTO;
+import com.batuhanyalcin.dto.product.FlashSaleStatusDTO;
+import com.batuhanyalcin.dto.product.ProductImportResultDTO;
+import com.batuhanyalcin.service.DashboardSnapshotService;
+import com.batuhanyalcin.service.ExportService;
+import com.batuhanyalcin.service.FlashSaleService;
 import com.batuhanyalcin.service.OrderService;
-import com.batuhanyalcin.service.ProductService;
+import com.batuhanyalcin.service.ProductImportService;
 import com.batuhanyalcin.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,7 +38,16 @@ public class AdminController {
     private OrderService orderService;
     
     @Autowired
-    private ProductService productService;
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
 
     // Tüm kullanıcıları getir
     @GetMapping("/users")
@@ -41,29 +61,71 @@ public class AdminController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
-    // Dashboard istatistikleri
+    // Açık siparişler (PENDING/PROCESSING) kuyruğu; imleçle sayfalanır
+    @GetMapping("/orders/open")
+    public ResponseEntity<OrderPageDTO> getOpenOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.getOpenOrders(cursor, limit));
+    }
+
+    // Dışa aktarma: satırlar veritabanından okundukça yazılır, liste belleğe alınmaz
+    @GetMapping(value = "/export/products", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = out -> exportService.exportProducts(out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/export/orders", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = out -> exportService.exportOrders(out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ndjson\"")
+                .body(body);
+    }
+
+    // Toplu ürün içe aktarma: gövde CSV (başlık satırlı) veya NDJSON olarak akış halinde okunur
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ProductImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    // Flash satış: ürün stoğu bellekteki defterden satılır, veritabanına toplu yazılır
+    @GetMapping("/flash-sales")
+    public ResponseEntity<List<FlashSaleStatusDTO>> getFlashSales() {
+        return ResponseEntity.ok(flashSaleService.getStatus());
+    }
+
+    @PostMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSaleStatusDTO> enrollFlashSale(@PathVariable Long productId) {
+        return ResponseEntity.ok(flashSaleService.enroll(productId));
+    }
+
+    @DeleteMapping("/flash-sales/{productId}")
+    public ResponseEntity<String> removeFlashSale(@PathVariable Long productId) {
+        flashSaleService.remove(productId);
+        return ResponseEntity.ok("Ürün flash satıştan çıkarıldı");
+    }
+
+    // Dashboard istatistikleri bellekteki anlık görüntüden döner; yaşı yanıtta ve Age başlığında bildirilir
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Toplam kullanıcı sayısı
-        stats.put("totalUsers", userService.getUserCount());
-        
-        // Toplam sipariş sayısı
-        stats.put("totalOrders", orderService.getOrderCount());
-        
-        // Toplam ürün sayısı
-        stats.put("totalProducts", productService.getProductCount());
-        
-        // Toplam gelir
-        stats.put("revenue", orderService.getTotalRevenue());
-        
-        // Son 5 sipariş
-        stats.put("recentOrders", orderService.getRecentOrders(5));
-        
-        // Duruma göre sipariş sayıları
-        stats.put("orderStatusCounts", orderService.getOrderStatusCounts());
-        
-        return ResponseEntity.ok(stats);
+        DashboardSnapshotService.Snapshot snapshot = dashboardSnapshotService.getSnapshot();
+        long ageMillis = snapshot.getAge().toMillis();
+
+        Map<String, Object> stats = new LinkedHashMap<>(snapshot.getStats());
+        stats.put("generatedAt", snapshot.getBuiltAt().toString());
+        stats.put("snapshotAgeMillis", ageMillis);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(ageMillis / 1000))
+                .body(stats);
     }
-} 
\ No newline at end of file
+}
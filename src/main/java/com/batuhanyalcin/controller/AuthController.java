@@ -5,8 +5,10 @@ import com.batuhanyalcin.dto.auth.LoginRequestDTO;
 import com.batuhanyalcin.dto.auth.RegisterRequestDTO;
 import com.batuhanyalcin.security.CustomUserDetailsService;
 import com.batuhanyalcin.security.JwtUtils;
+import com.batuhanyalcin.security.LoginRateLimiter;
 import com.batuhanyalcin.security.UserPrincipal;
 import com.batuhanyalcin.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,10 +46,16 @@ public class AuthController {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO loginRequest, HttpServletRequest request) {
         logger.info("Login isteği alındı - username: {}", loginRequest.getUsername());
-        
+
+        // Kısıtlanan deneme kullanıcı sorgusu ve BCrypt karşılaştırması yapılmadan 429 alır
+        loginRateLimiter.checkLogin(loginRequest.getUsername(), request.getRemoteAddr());
+
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -56,6 +64,7 @@ public class AuthController {
                 )
             );
 
+            loginRateLimiter.loginSucceeded(loginRequest.getUsername());
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
             
@@ -1,9 +1,13 @@
 package com.batuhanyalcin.controller;
 
 import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderIntakeStatusDTO;
+import com.batuhanyalcin.dto.order.OrderPageDTO;
 import com.batuhanyalcin.dto.order.OrderResponseDTO;
 import com.batuhanyalcin.dto.order.OrderStatusUpdateDTO;
 import com.batuhanyalcin.security.UserPrincipal;
+import com.batuhanyalcin.service.IdempotencyService;
+import com.batuhanyalcin.service.OrderIntakeService;
 import com.batuhanyalcin.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,28 +16,64 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "http://localhost:3000")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    // Idempotency-Key gönderilirse aynı anahtarla tekrarlanan istek yeni sipariş oluşturmaz, ilk yanıtı alır
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<OrderResponseDTO> createOrder(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderCreateDTO orderCreateDTO) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.createOrder(currentUser.getId(), orderCreateDTO));
+        }
+        return ResponseEntity.ok(idempotencyService.createOrder(currentUser.getId(), idempotencyKey, orderCreateDTO));
+    }
+
+    // Asenkron kabul: sipariş doğrulanıp kuyruğa alınır, sonucu durum adresinden okunur
+    @PostMapping("/async")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<OrderIntakeStatusDTO> submitOrder(
             @AuthenticationPrincipal UserPrincipal currentUser,
             @Valid @RequestBody OrderCreateDTO orderCreateDTO) {
-        return ResponseEntity.ok(orderService.createOrder(currentUser.getId(), orderCreateDTO));
+        OrderIntakeStatusDTO status = orderIntakeService.submit(currentUser.getId(), orderCreateDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create(status.getStatusUrl()))
+                .body(status);
+    }
+
+    @GetMapping("/intake/{ticketId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<OrderIntakeStatusDTO> getIntakeStatus(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable String ticketId) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(currentUser.getId(), ticketId));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN') or @userSecurity.hasUserId(authentication, #userId)")
-    public ResponseEntity<List<OrderResponseDTO>> getUserOrders(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getUserOrders(userId));
+    public ResponseEntity<OrderPageDTO> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.getUserOrders(userId, cursor, limit));
     }
     
     @GetMapping("/{id}")
@@ -1,17 +1,26 @@
 package com.batuhanyalcin.controller;
 
 import com.batuhanyalcin.dto.product.ProductCreateDTO;
+import com.batuhanyalcin.dto.product.ProductLookupDTO;
+import com.batuhanyalcin.dto.product.ProductPageDTO;
 import com.batuhanyalcin.dto.product.ProductResponseDTO;
 import com.batuhanyalcin.dto.product.ProductUpdateDTO;
+import com.batuhanyalcin.service.CatalogSnapshotService;
 import com.batuhanyalcin.service.ProductService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -24,20 +33,76 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    // Liste hazır bayt dizisinden sunulur: istek başına sorgu, entity ya da JSON serileştirme yapılmaz
     @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
-        logger.info("Tüm ürünler talep ediliyor");
-        List<ProductResponseDTO> products = productService.getAllProducts();
-        logger.info("Toplam {} ürün bulundu", products.size());
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(WebRequest webRequest) {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getSnapshot();
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        logger.debug("Tüm ürünler anlık görüntüden sunuluyor: {} ürün", snapshot.getProductCount());
+
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageDTO> getProductPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        ProductPageDTO page = productService.getProductPage(cursor, limit, minPrice, maxPrice, inStock, sort, direction);
+        logger.debug("Ürün sayfası döndürüldü: {} ürün, devamı var: {}", page.getItems().size(), page.isHasNext());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponseDTO>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        List<ProductResponseDTO> results = productService.searchProducts(query, limit);
+        logger.debug("Arama '{}' için {} ürün bulundu", query, results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    // Sepet ve sipariş ekranları için: ?ids=1,2,3
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductLookupDTO>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        // Koşullu istek değilse sürüm sorgusuna gerek yok
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = productService.getProductETag(id).orElse(null);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         logger.info("ID: {} olan ürün talep ediliyor", id);
         ProductResponseDTO product = productService.getProductById(id);
         logger.info("Ürün bulundu: {}", product.getName());
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(ProductService.productETag(product.getId(), product.getVersion(), product.getStockQuantity()))
+                .cacheControl(CacheControl.noCache())
+                .body(product);
     }
 
     @PostMapping
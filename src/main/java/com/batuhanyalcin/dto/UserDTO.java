@@ -1,10 +1,12 @@
 package com.batuhanyalcin.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.Set;
 
 @Data
+@NoArgsConstructor
 public class UserDTO {
     private Long id;
     private String username;
@@ -14,4 +16,16 @@ public class UserDTO {
     private String lastName;
     private String phoneNumber;
     private String address;
-} 
\ No newline at end of file
+
+    // JPQL constructor ifadesi için; roller ayrı bir sorguyla doldurulur
+    public UserDTO(Long id, String username, String email, String firstName, String lastName,
+                   String phoneNumber, String address) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phoneNumber = phoneNumber;
+        this.address = address;
+    }
+}
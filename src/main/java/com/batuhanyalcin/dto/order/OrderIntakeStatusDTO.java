@@ -0,0 +1,19 @@
+package com.batuhanyalcin.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatusDTO {
+    private String ticketId;
+    private String status; // QUEUED, COMPLETED, FAILED
+    private String statusUrl;
+    private LocalDateTime acceptedAt;
+    private OrderResponseDTO order;
+    private String error;
+}
@@ -2,9 +2,13 @@ package com.batuhanyalcin.dto.order;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderItemDTO {
     @NotNull(message = "Ürün ID boş olamaz")
     private Long productId;
@@ -0,0 +1,17 @@
+package com.batuhanyalcin.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageDTO {
+    private List<OrderResponseDTO> items;
+    private String nextCursor; // Son sayfada null
+    private boolean hasNext;
+    private int limit;
+}
@@ -1,11 +1,14 @@
 package com.batuhanyalcin.dto.order;
 
+import com.batuhanyalcin.model.OrderStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class OrderResponseDTO {
     private Long id;
     private Long userId;
@@ -13,4 +16,13 @@ public class OrderResponseDTO {
     private BigDecimal totalAmount;
     private LocalDateTime orderDate;
     private String status;
-} 
\ No newline at end of file
+
+    // JPQL constructor ifadesi için; kalemler ayrı bir sorguyla doldurulur
+    public OrderResponseDTO(Long id, Long userId, BigDecimal totalAmount, LocalDateTime orderDate, OrderStatus status) {
+        this.id = id;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+        this.orderDate = orderDate;
+        this.status = status.name();
+    }
+}
@@ -0,0 +1,13 @@
+package com.batuhanyalcin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleStatusDTO {
+    private Long productId;
+    private Integer availableStock;
+}
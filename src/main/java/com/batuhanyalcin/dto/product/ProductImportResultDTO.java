@@ -0,0 +1,25 @@
+package com.batuhanyalcin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportResultDTO {
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated; // Rapor sınırı aşıldıysa yalnızca ilk hatalar listelenir
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
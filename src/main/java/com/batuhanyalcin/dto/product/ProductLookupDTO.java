@@ -0,0 +1,14 @@
+package com.batuhanyalcin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductLookupDTO {
+    private Long id;
+    private boolean found;
+    private ProductResponseDTO product; // found false ise null
+}
@@ -0,0 +1,17 @@
+package com.batuhanyalcin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDTO {
+    private List<ProductResponseDTO> items;
+    private String nextCursor; // Son sayfada null
+    private boolean hasNext;
+    private int limit;
+}
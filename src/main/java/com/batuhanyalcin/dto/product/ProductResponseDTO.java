@@ -1,9 +1,14 @@
 package com.batuhanyalcin.dto.product;
 
+import com.batuhanyalcin.model.Product;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductResponseDTO {
     private Long id;
     private String name;
@@ -11,4 +16,17 @@ public class ProductResponseDTO {
     private BigDecimal price;
     private Integer stockQuantity;
     private String imageUrl;
-} 
\ No newline at end of file
+    private Long version;
+
+    public static ProductResponseDTO from(Product product) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setVersion(product.getVersion());
+        return dto;
+    }
+}
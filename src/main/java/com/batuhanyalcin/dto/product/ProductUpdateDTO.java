@@ -23,5 +23,13 @@ public class ProductUpdateDTO {
     @PositiveOrZero(message = "Stok miktarı negatif olamaz")
     private Integer stockQuantity;
 
+    // Admin'in formu açtığında gördüğü stok; gönderilirse yalnızca aradaki fark güncel stoğa uygulanır,
+    // değişmemişse stoğa dokunulmaz. Gönderilmezse stockQuantity doğrudan yazılır
+    private Integer originalStockQuantity;
+
     private String imageUrl;
+
+    // İstemcinin okuduğu sürüm; gönderilirse ürün o arada başka bir güncellemeyle değişmişse 409 ile reddedilir.
+    // Siparişlerin stok düşümleri version'ı artırmaz
+    private Long version;
 } 
\ No newline at end of file
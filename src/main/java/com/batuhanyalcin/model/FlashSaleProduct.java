@@ -0,0 +1,23 @@
+package com.batuhanyalcin.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flash satış moduna alınmış ürünler; yeniden başlatmada bellek içi defter bu tablodan kurulur
+@Data
+@Entity
+@Table(name = "flash_sale_products")
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleProduct {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private LocalDateTime enrolledAt;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +14,9 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id_id", columnList = "user_id, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
@@ -24,7 +28,9 @@ public class Order {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // Birden fazla siparişin kalemlerine entity üzerinden erişilirse koleksiyonlar IN sorgusuyla toplu yüklenir
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> orderItems = new ArrayList<>();
     
     @Column(nullable = false)
@@ -33,6 +39,13 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime orderDate;
 
+    // Durum kodu smallint olarak saklanır; açık durumlar için kısmi indeks OrderStatusMigration'da oluşturulur
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(name = "status_code", nullable = false)
+    private OrderStatus status;
+
+    @Version
+    @ColumnDefault("0")
     @Column(nullable = false)
-    private String status; // PENDING, COMPLETED, CANCELLED vb.
+    private Long version;
 } 
\ No newline at end of file
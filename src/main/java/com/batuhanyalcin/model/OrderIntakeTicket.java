@@ -0,0 +1,61 @@
+package com.batuhanyalcin.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Asenkron kabul edilen sipariş talebi. 202 yanıtından önce commit edilir; herhangi bir düğümün işçisi
+// FOR UPDATE SKIP LOCKED ile sahiplenir ve sonucu siparişle aynı işlemde yazar
+@Data
+@Entity
+@Table(name = "order_intake_tickets",
+        indexes = {
+                @Index(name = "idx_order_intake_tickets_status_accepted_at", columnList = "status, accepted_at"),
+                @Index(name = "idx_order_intake_tickets_finished_at", columnList = "finished_at")
+        })
+@NoArgsConstructor
+public class OrderIntakeTicket {
+
+    public enum Status {
+        QUEUED, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "request_body", nullable = false, columnDefinition = "text")
+    private String requestBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "accepted_at", nullable = false)
+    private LocalDateTime acceptedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public OrderIntakeTicket(Long userId, String requestBody) {
+        this.userId = userId;
+        this.requestBody = requestBody;
+        this.status = Status.QUEUED;
+        this.acceptedAt = LocalDateTime.now();
+    }
+}
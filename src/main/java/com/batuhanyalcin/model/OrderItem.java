@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_stock_applied", columnList = "stock_applied")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
@@ -30,4 +33,9 @@ public class OrderItem {
     
     @Column(nullable = false)
     private BigDecimal price;
+
+    // Flash satıştaki ürünlerde stok products satırına sonradan toplu yansıtılır; o zamana kadar false kalır
+    @ColumnDefault("true")
+    @Column(name = "stock_applied", nullable = false)
+    private boolean stockApplied = true;
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.batuhanyalcin.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Sipariş durumları ve izin verilen geçişler. Veritabanında kod (smallint) olarak saklanır;
+// kodlar kalıcıdır, sıralama değişse bile mevcut satırların anlamı değişmez
+public enum OrderStatus {
+    PENDING((short) 0),
+    PROCESSING((short) 1),
+    SHIPPED((short) 2),
+    DELIVERED((short) 3),
+    CANCELLED((short) 4);
+
+    // Açık siparişler; orders tablosundaki kısmi indeks bu kodları kapsar
+    public static final Set<OrderStatus> OPEN = Collections.unmodifiableSet(EnumSet.of(PENDING, PROCESSING));
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final OrderStatus[] BY_CODE = new OrderStatus[values().length];
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(PROCESSING, SHIPPED, CANCELLED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        for (OrderStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final short code;
+
+    OrderStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public boolean isOpen() {
+        return OPEN.contains(this);
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    public static OrderStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Bilinmeyen sipariş durum kodu: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
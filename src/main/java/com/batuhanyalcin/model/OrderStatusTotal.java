@@ -0,0 +1,43 @@
+package com.batuhanyalcin.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Durum başına sipariş sayısı ve tutar toplamı. Her durum birkaç satıra (slot) bölünür; eşzamanlı siparişler
+// farklı satırları günceller ve tek bir sıcak satırda sıraya girmez. Okumada slotlar toplanır
+@Data
+@Entity
+@Table(name = "order_status_totals")
+@IdClass(OrderStatusTotal.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTotal {
+    @Id
+    @Column(length = 20)
+    private String status;
+
+    @Id
+    private Integer slot;
+
+    @ColumnDefault("0")
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String status;
+        private Integer slot;
+    }
+}
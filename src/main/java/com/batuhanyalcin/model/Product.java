@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
@@ -26,8 +29,14 @@ public class Product {
     @Column(nullable = false)
     private BigDecimal price;
     
-    @Column(nullable = false)
+    // Stok yalnızca satır kilitli SQL ile değişir ve version'ı artırmaz; entity kaydı siparişlerin düşümünü ezemez
+    @Column(nullable = false, updatable = false)
     private Integer stockQuantity;
 
     private String imageUrl;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.batuhanyalcin.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Kullanıcı başına son token iptali (şifre değişikliği, hesap silme); bu andan önce verilmiş token'lar geçersizdir.
+// Kullanıcı satırından ayrı tutulur, hesap silinse de iptal diğer düğümlere ulaşır
+@Data
+@Entity
+@Table(name = "token_revocations",
+        indexes = @Index(name = "idx_token_revocations_revoked_at", columnList = "revoked_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
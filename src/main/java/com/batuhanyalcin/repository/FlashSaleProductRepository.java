@@ -0,0 +1,7 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.FlashSaleProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FlashSaleProductRepository extends JpaRepository<FlashSaleProduct, Long> {
+}
@@ -0,0 +1,43 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.OrderIntakeTicket;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface OrderIntakeTicketRepository extends JpaRepository<OrderIntakeTicket, UUID> {
+
+    // FOR UPDATE SKIP LOCKED (-2 = LockOptions.SKIP_LOCKED): işçiler, başka işçinin kilitlediği talepleri beklemeden atlar.
+    // H2 SKIP LOCKED desteklemez; testlerde düz FOR UPDATE olarak üretilir ve işçiler sırayla bekler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select t from OrderIntakeTicket t where t.status = com.batuhanyalcin.model.OrderIntakeTicket.Status.QUEUED "
+            + "order by t.acceptedAt")
+    List<OrderIntakeTicket> claimQueued(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select t from OrderIntakeTicket t where t.id = :id "
+            + "and t.status = com.batuhanyalcin.model.OrderIntakeTicket.Status.QUEUED")
+    Optional<OrderIntakeTicket> claimQueuedById(@Param("id") UUID id);
+
+    long countByStatus(OrderIntakeTicket.Status status);
+
+    @Modifying
+    @Query("delete from OrderIntakeTicket t where t.status <> com.batuhanyalcin.model.OrderIntakeTicket.Status.QUEUED "
+            + "and t.finishedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,12 +1,78 @@
 package com.batuhanyalcin.repository;
 
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
 import com.batuhanyalcin.model.Order;
-import com.batuhanyalcin.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUser(User user);
-    Long countByStatus(String status);
-} 
\ No newline at end of file
+    // [status, count, sum(totalAmount)]; durum toplamlarının mutabakatı için tek geçişte okunur
+    @Query("select o.status, count(o), sum(o.totalAmount) from Order o group by o.status")
+    List<Object[]> sumTotalsByStatus();
+
+    // Kalemler aynı sorguda join ile gelir; iptal ve durum güncellemesi koleksiyon için ikinci sorgu atmaz
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    // Sipariş başlığı projeksiyonu; o.user.id yabancı anahtar kolonundan okunur, users tablosuna join yapılmaz
+    @Query("select new com.batuhanyalcin.dto.order.OrderResponseDTO(o.id, o.user.id, o.totalAmount, o.orderDate, "
+            + "o.status) from Order o where o.id = :id")
+    Optional<OrderResponseDTO> findDTOById(@Param("id") Long id);
+
+    @Query("select new com.batuhanyalcin.dto.order.OrderResponseDTO(o.id, o.user.id, o.totalAmount, o.orderDate, "
+            + "o.status) from Order o order by o.id")
+    List<OrderResponseDTO> findAllDTOs();
+
+    // Kullanıcının siparişleri yeniden eskiye; (user_id, id) indeksi üzerinden imleçten sonraki sayfayı okur
+    @Query("select new com.batuhanyalcin.dto.order.OrderResponseDTO(o.id, o.user.id, o.totalAmount, o.orderDate, "
+            + "o.status) from Order o where o.user.id = :userId and o.id < :beforeId order by o.id desc")
+    List<OrderResponseDTO> findDTOsByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+                                                  Pageable pageable);
+
+    @Query("select new com.batuhanyalcin.dto.order.OrderResponseDTO(o.id, o.user.id, o.totalAmount, o.orderDate, "
+            + "o.status) from Order o order by o.orderDate desc, o.id desc")
+    List<OrderResponseDTO> findRecentDTOs(Pageable pageable);
+
+    @Query("select new com.batuhanyalcin.dto.order.OrderResponseDTO(o.id, o.user.id, o.totalAmount, o.orderDate, "
+            + "o.status) from Order o where o.id in :ids order by o.id")
+    List<OrderResponseDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Açık sipariş kuyruğu; kodlar OrderStatus.OPEN ile aynıdır ve sabit yazılır ki PostgreSQL
+    // idx_orders_open kısmi indeksini seçip yalnızca indeksten okuyabilsin
+    @Query(value = "select o.id from orders o where o.status_code in (0, 1) and o.id > :afterId order by o.id",
+            nativeQuery = true)
+    List<Long> findOpenOrderIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [orderId, productId, quantity]
+    @Query("select oi.order.id, oi.product.id, oi.quantity from OrderItem oi where oi.order.id = :orderId order by oi.id")
+    List<Object[]> findItemRowsByOrderId(@Param("orderId") Long orderId);
+
+    @Query("select oi.order.id, oi.product.id, oi.quantity from OrderItem oi order by oi.order.id, oi.id")
+    List<Object[]> findAllItemRows();
+
+    @Query("select oi.order.id, oi.product.id, oi.quantity from OrderItem oi where oi.order.id in :orderIds "
+            + "order by oi.order.id, oi.id")
+    List<Object[]> findItemRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select o from Order o order by o.id")
+    Stream<Order> streamAll();
+
+    // [orderId, productId, quantity]; streamAll ile aynı sırada gelir, böylece iki imleç birleştirilebilir
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select oi.order.id, oi.product.id, oi.quantity from OrderItem oi order by oi.order.id, oi.id")
+    Stream<Object[]> streamAllItemRows();
+}
@@ -0,0 +1,34 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.OrderStatusTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderStatusTotalRepository extends JpaRepository<OrderStatusTotal, OrderStatusTotal.Key> {
+
+    @Modifying
+    @Query("update OrderStatusTotal t set t.orderCount = t.orderCount + :count, t.totalAmount = t.totalAmount + :amount "
+            + "where t.status = :status and t.slot = :slot")
+    int add(@Param("status") String status, @Param("slot") Integer slot,
+            @Param("count") long count, @Param("amount") BigDecimal amount);
+
+    // [status, sum(orderCount)]; durum başına en fazla SLOTS satır, birincil anahtar üzerinden okunur
+    @Query("select t.status, sum(t.orderCount) from OrderStatusTotal t group by t.status")
+    List<Object[]> sumOrderCountByStatus();
+
+    @Query("select coalesce(sum(t.totalAmount), 0) from OrderStatusTotal t where t.status in :statuses")
+    BigDecimal sumTotalAmount(@Param("statuses") Collection<String> statuses);
+
+    // Yazanlarla aynı (status, slot) sırasında kilitlenir
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from OrderStatusTotal t order by t.status, t.slot")
+    List<OrderStatusTotal> findAllForUpdate();
+}
@@ -1,7 +1,72 @@
 package com.batuhanyalcin.repository;
 
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
 import com.batuhanyalcin.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-} 
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    // DTO doğrudan sonuç kümesinden kurulur; entity, persistence context ve dirty-checking kopyası oluşmaz
+    @Query("select new com.batuhanyalcin.dto.product.ProductResponseDTO(p.id, p.name, p.description, p.price, "
+            + "p.stockQuantity, p.imageUrl, p.version) from Product p where p.id = :id")
+    Optional<ProductResponseDTO> findDTOById(@Param("id") Long id);
+
+    @Query("select new com.batuhanyalcin.dto.product.ProductResponseDTO(p.id, p.name, p.description, p.price, "
+            + "p.stockQuantity, p.imageUrl, p.version) from Product p where p.id in :ids")
+    List<ProductResponseDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.batuhanyalcin.dto.product.ProductResponseDTO(p.id, p.name, p.description, p.price, "
+            + "p.stockQuantity, p.imageUrl, p.version) from Product p order by p.id")
+    List<ProductResponseDTO> findAllDTOs();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // Stok değişimleri version'ı artırmadığından ETag ikisinden birlikte üretilir
+    @Query("select p.version as version, p.stockQuantity as stockQuantity from Product p where p.id = :id")
+    Optional<ProductRevision> findRevisionById(@Param("id") Long id);
+
+    interface ProductRevision {
+        Long getVersion();
+
+        Integer getStockQuantity();
+    }
+
+    // Katalogun ucuz özeti: ürün ekleme/silme sayıyı veya en büyük id'yi, güncelleme version toplamını, stok
+    // değişimi stok toplamını değiştirir. Başka düğümlerde yapılan yazmaları tam tarama yapmadan fark etmek içindir
+    @Query("select count(p) as productCount, coalesce(max(p.id), 0) as maxId, coalesce(sum(p.version), 0) as versionSum, "
+            + "coalesce(sum(p.stockQuantity), 0) as stockSum from Product p")
+    CatalogFingerprint findCatalogFingerprint();
+
+    interface CatalogFingerprint {
+        Long getProductCount();
+
+        Long getMaxId();
+
+        Long getVersionSum();
+
+        Long getStockSum();
+    }
+
+    // Sunucu tarafı imleç: satırlar fetch size kadar parça parça gelir, işlem içinde tüketilmelidir
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.batuhanyalcin.dto.product.ProductResponseDTO(p.id, p.name, p.description, p.price, "
+            + "p.stockQuantity, p.imageUrl, p.version) from Product p order by p.id")
+    Stream<ProductResponseDTO> streamAllDTOs();
+}
@@ -0,0 +1,32 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.Product;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+// JPA yerine doğrudan JDBC ile yapılan toplu ürün işlemleri
+public interface ProductRepositoryCustom {
+
+    // Ürünleri tek bir JDBC batch'i olarak ekler ve üretilen id'leri nesnelere yazar
+    int batchInsert(List<Product> products);
+
+    // Ürün başına koşullu azaltma (stock >= miktar); stoğu yetmeyen ürünlerin id'lerini döner.
+    // Satırlar id sırasıyla kilitlenir ki eşzamanlı siparişler birbirini kilitlenmeye sokmasın
+    List<Long> reserveStock(SortedMap<Long, Integer> quantities);
+
+    void releaseStock(SortedMap<Long, Integer> quantities);
+
+    // Satırları id sırasıyla kilitler ve kilit altındaki stoğu döner (id -> stok); bulunamayan id'ler sonuçta yoktur
+    Map<Long, Integer> lockStock(SortedSet<Long> productIds);
+
+    // Stoğu verilen değere ayarlar; çağıran satırı önce lockStock ile kilitlemiş olmalı
+    void updateStock(Long productId, int stockQuantity);
+
+    // stock_applied = false olan sipariş kalemlerini ürün başına tek UPDATE ile stoğa yansıtır ve uygulandı olarak
+    // işaretler. İkisi aynı işlemde olduğundan her kalem bir kez düşülür; ürün id -> düşülen miktar döner.
+    // Bir ürünün stoğu yetmiyorsa hiçbir şey uygulanmaz ve IllegalStateException fırlatılır
+    Map<Long, Integer> applyPendingStock();
+}
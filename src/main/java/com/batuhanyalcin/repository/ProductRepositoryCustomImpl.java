@@ -0,0 +1,192 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, stock_quantity, image_url, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    // Kontrol ve azaltma tek ifadede yapılır; satır kilidi alındıktan sonra koşul yeniden değerlendirilir
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    // reserveStock ile aynı sırada (id) kilitler; satırlar sıralamadan sonra, id sırasıyla kilitlenir
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, stock_quantity FROM products WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    // Kilitlenen satırlar başka bir flush tarafından tekrar okunamaz; henüz commit edilmemiş kalemler sonraki tura kalır
+    private static final String PENDING_ITEMS_SQL =
+            "SELECT id, product_id, quantity FROM order_items WHERE stock_applied = false ORDER BY product_id, id FOR UPDATE";
+
+    // Defter ürün satırından kurulduğu için koşul hiçbir zaman başarısız olmamalı; olursa stok eksiye düşürülmez
+    private static final String APPLY_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = ? WHERE id = ?";
+
+    private static final String MARK_APPLIED_SQL =
+            "UPDATE order_items SET stock_applied = true WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int batchInsert(List<Product> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] counts = jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Product product = products.get(i);
+                        ps.setString(1, product.getName());
+                        ps.setString(2, product.getDescription());
+                        ps.setBigDecimal(3, product.getPrice());
+                        ps.setInt(4, product.getStockQuantity());
+                        ps.setString(5, product.getImageUrl());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < products.size(); i++) {
+            products.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+            products.get(i).setVersion(0L);
+        }
+        return counts.length;
+    }
+
+    @Override
+    public List<Long> reserveStock(SortedMap<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> entry = entries.get(i);
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                insufficient.add(entries.get(i).getKey());
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public void releaseStock(SortedMap<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        jdbcTemplate.batchUpdate(RELEASE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> entry = entries.get(i);
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    @Override
+    public Map<Long, Integer> lockStock(SortedSet<Long> productIds) {
+        Map<Long, Integer> stock = new TreeMap<>();
+        if (productIds.isEmpty()) {
+            return stock;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(String.format(LOCK_STOCK_SQL, placeholders),
+                rs -> {
+                    stock.put(rs.getLong(1), rs.getInt(2));
+                },
+                productIds.toArray());
+        return stock;
+    }
+
+    @Override
+    public void updateStock(Long productId, int stockQuantity) {
+        jdbcTemplate.update(UPDATE_STOCK_SQL, stockQuantity, productId);
+    }
+
+    @Override
+    public Map<Long, Integer> applyPendingStock() {
+        List<Long> itemIds = new ArrayList<>();
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(PENDING_ITEMS_SQL, rs -> {
+            itemIds.add(rs.getLong(1));
+            quantities.merge(rs.getLong(2), rs.getInt(3), Integer::sum);
+        });
+        if (itemIds.isEmpty()) {
+            return quantities;
+        }
+
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, entries.get(i).getValue());
+                ps.setLong(2, entries.get(i).getKey());
+                ps.setInt(3, entries.get(i).getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        List<Long> oversold = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                oversold.add(entries.get(i).getKey());
+            }
+        }
+        if (!oversold.isEmpty()) {
+            // İşlem geri alınır; kalemler uygulanmamış kalır ve sorun giderilene kadar her turda yeniden raporlanır
+            throw new IllegalStateException("Flash satış stoğu sıfırın altına düşerdi, ürünler: " + oversold);
+        }
+        jdbcTemplate.batchUpdate(MARK_APPLIED_SQL, itemIds, 1000, (ps, itemId) -> ps.setLong(1, itemId));
+        return quantities;
+    }
+}
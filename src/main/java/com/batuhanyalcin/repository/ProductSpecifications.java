@@ -0,0 +1,45 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> minPrice == null ? null : cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> inStock(Boolean inStock) {
+        if (inStock == null) {
+            return (root, query, cb) -> null;
+        }
+        return (root, query, cb) -> inStock
+                ? cb.greaterThan(root.get("stockQuantity"), 0)
+                : cb.lessThanOrEqualTo(root.get("stockQuantity"), 0);
+    }
+
+    // Keyset koşulu: (id) > lastId
+    public static Specification<Product> idAfter(Long lastId, boolean descending) {
+        return (root, query, cb) -> descending
+                ? cb.lessThan(root.get("id"), lastId)
+                : cb.greaterThan(root.get("id"), lastId);
+    }
+
+    // Keyset koşulu: (price, id) > (lastPrice, lastId)
+    public static Specification<Product> priceAndIdAfter(BigDecimal lastPrice, Long lastId, boolean descending) {
+        return (root, query, cb) -> descending
+                ? cb.or(cb.lessThan(root.get("price"), lastPrice),
+                        cb.and(cb.equal(root.get("price"), lastPrice), cb.lessThan(root.get("id"), lastId)))
+                : cb.or(cb.greaterThan(root.get("price"), lastPrice),
+                        cb.and(cb.equal(root.get("price"), lastPrice), cb.greaterThan(root.get("id"), lastId)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.batuhanyalcin.repository;
+
+import com.batuhanyalcin.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedAt < :before")
+    int deleteRevokedBefore(@Param("before") LocalDateTime before);
+}
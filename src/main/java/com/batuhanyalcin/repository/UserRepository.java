@@ -1,12 +1,32 @@
 package com.batuhanyalcin.repository;
 
+import com.batuhanyalcin.dto.UserDTO;
 import com.batuhanyalcin.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<User> findByUsername(String username);
+
+    // Roller hariç kullanıcı DTO'su; EAGER rol koleksiyonunun kullanıcı başına ek sorgusu tetiklenmez
+    @Query("select new com.batuhanyalcin.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, "
+            + "u.phoneNumber, u.address) from User u where u.id = :id")
+    Optional<UserDTO> findDTOById(@Param("id") Long id);
+
+    @Query("select new com.batuhanyalcin.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, "
+            + "u.phoneNumber, u.address) from User u order by u.id")
+    List<UserDTO> findAllDTOs();
+
+    // [userId, role]
+    @Query("select u.id, r from User u join u.roles r where u.id = :id")
+    List<Object[]> findRoleRowsById(@Param("id") Long id);
+
+    @Query("select u.id, r from User u join u.roles r")
+    List<Object[]> findAllRoleRows();
 } 
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.batuhanyalcin.security;
+
+import com.batuhanyalcin.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt işlemleri sınırlı bir havuzda çalışır; giriş dalgası ya da kaba kuvvet denemesi tüm çekirdekleri
+// tüketip diğer uç noktaları aç bırakamaz. Kuyruk doluysa ya da bekleme süresi aşılırsa istek hemen 503 alır.
+// Maliyet faktörü verilmemişse açılışta bu donanımda hedef süreye göre seçilir; eski maliyetle üretilmiş
+// hash'ler kendi maliyetleriyle doğrulanmaya devam eder
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    // Kalibrasyon bu aralığın dışına çıkmaz; alt sınır hedef süre ne olursa olsun korunur
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 14;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0: çekirdek sayısının yarısı; kalan çekirdekler diğer isteklere kalır
+    @Value("${app.password-hashing.threads:0}")
+    private int threads = 0;
+
+    @Value("${app.password-hashing.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    // İstek iş parçacığının sonucu en fazla bekleyeceği süre (kuyruk + hash)
+    @Value("${app.password-hashing.max-wait:2s}")
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    // 0: açılışta target-duration'a göre kalibre edilir
+    @Value("${app.password-hashing.strength:0}")
+    private int strength = 0;
+
+    @Value("${app.password-hashing.target-duration:250ms}")
+    private Duration targetDuration = Duration.ofMillis(250);
+
+    private BCryptPasswordEncoder delegate;
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+
+    @PostConstruct
+    void init() {
+        int cost = strength > 0 ? strength : calibrate();
+        delegate = new BCryptPasswordEncoder(cost);
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode").register(meterRegistry);
+        matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        logger.info("Şifre hash havuzu: {} iş parçacığı, kuyruk {}, BCrypt maliyeti {}", poolSize, queueCapacity, cost);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute("matches", matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Maliyet bir arttığında süre iki katına çıkar; alt sınırda ölçülen süreden hedefi aşmayan en yüksek maliyet seçilir
+    int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("kalibrasyon"); // JIT ısınması
+        long started = System.nanoTime();
+        probe.encode("kalibrasyon");
+        long elapsed = Math.max(1, System.nanoTime() - started);
+
+        int cost = MIN_STRENGTH;
+        while (cost < MAX_STRENGTH && elapsed * 2 <= targetDuration.toNanos()) {
+            elapsed *= 2;
+            cost++;
+        }
+        logger.info("BCrypt maliyeti {} seçildi (tahmini {} ms, hedef {} ms)", cost,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), targetDuration.toMillis());
+        return cost;
+    }
+
+    private <T> T execute(String operation, Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            reject(operation, "queue-full");
+            throw new ServiceUnavailableException("Şifre işlemleri şu anda yoğun, lütfen daha sonra tekrar deneyin");
+        }
+
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            reject(operation, "timeout");
+            throw new ServiceUnavailableException("Şifre işlemi zaman aşımına uğradı, lütfen daha sonra tekrar deneyin");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Şifre işlemi kesildi");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void reject(String operation, String reason) {
+        meterRegistry.counter("password.hash.rejected", "operation", operation, "reason", reason).increment();
+        logger.warn("Şifre işlemi reddedildi ({}, {})", operation, reason);
+    }
+}
@@ -0,0 +1,210 @@
+package com.batuhanyalcin.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Yapılandırmadan yüklenen imza ve doğrulama anahtarları. Token başlığındaki kid ile doğrulama anahtarı seçilir;
+// rotasyon sırasında listedeki tüm anahtarlarla imzalanmış token'lar kabul edilir.
+// Anahtarlar açılışta bir kez okunur ve doğrulanır; hatalı yapılandırmada uygulama açılmaz
+@Component
+public class JwtKeyRing implements SigningKeyResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    static final String DEFAULT_KEY_ID = "default";
+
+    // Depoda ve eğitim örneklerinde yayımlanmış anahtar; bununla imzalanan token'ı herkes üretebilir
+    private static final Set<String> PUBLISHED_SECRETS =
+            Set.of("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+
+    public JwtKeyRing(JwtProperties properties, @Value("${app.jwt-secret:}") String legacySecret) {
+        this.algorithm = properties.getAlgorithm();
+        if (algorithm != SignatureAlgorithm.HS512 && algorithm != SignatureAlgorithm.RS256) {
+            throw new IllegalStateException("Desteklenmeyen JWT algoritması: " + algorithm);
+        }
+
+        Map<String, Key> verification = new LinkedHashMap<>();
+        Map<String, Key> signing = new LinkedHashMap<>();
+        if (properties.getKeys().isEmpty()) {
+            if (algorithm != SignatureAlgorithm.HS512 || legacySecret.isBlank()) {
+                throw new IllegalStateException(
+                        "JWT anahtarı yapılandırılmamış: JWT_SECRET ortam değişkeni ya da app.jwt.keys verilmeli");
+            }
+            rejectPublished(DEFAULT_KEY_ID, legacySecret);
+            Key key = hmacKey(DEFAULT_KEY_ID, legacySecret.getBytes(StandardCharsets.UTF_8));
+            verification.put(DEFAULT_KEY_ID, key);
+            signing.put(DEFAULT_KEY_ID, key);
+        }
+        for (JwtProperties.KeyDefinition definition : properties.getKeys()) {
+            if (definition.getId() == null || definition.getId().isBlank()) {
+                throw new IllegalStateException("JWT anahtarının id değeri boş");
+            }
+            if (verification.containsKey(definition.getId())) {
+                throw new IllegalStateException("JWT anahtar id'si tekrar ediyor: " + definition.getId());
+            }
+            load(definition, verification, signing);
+        }
+
+        this.activeKeyId = properties.getActiveKeyId() != null ? properties.getActiveKeyId()
+                : verification.keySet().iterator().next();
+        if (!verification.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Aktif JWT anahtarı bulunamadı: " + activeKeyId);
+        }
+        // Özel anahtarı olmayan düğüm yalnızca doğrulama yapar
+        this.signingKey = signing.get(activeKeyId);
+        this.verificationKeys = Collections.unmodifiableMap(verification);
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(this).build();
+
+        logger.info("JWT anahtarları yüklendi: {} ({}), aktif {}{}", verification.keySet(), algorithm, activeKeyId,
+                signingKey == null ? ", yalnızca doğrulama" : "");
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    public Key getSigningKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("Bu düğümde JWT imza anahtarı yok: " + activeKeyId);
+        }
+        return signingKey;
+    }
+
+    // Değişmez ve thread-safe; anahtarı her token için kid'e göre bu sınıftan ister
+    public JwtParser parser() {
+        return parser;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolve(header);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolve(header);
+    }
+
+    // Başlıktaki algoritma yapılandırılanla aynı olmalı; aksi halde ör. RS256 açık anahtarı HMAC sırrı gibi kullanılamaz
+    private Key resolve(JwsHeader header) {
+        if (!algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new SecurityException("Beklenmeyen JWT algoritması: " + header.getAlgorithm());
+        }
+        Key key = verificationKeys.get(header.getKeyId());
+        if (key == null) {
+            throw new SecurityException("Bilinmeyen JWT anahtarı: " + header.getKeyId());
+        }
+        return key;
+    }
+
+    private void load(JwtProperties.KeyDefinition definition, Map<String, Key> verification, Map<String, Key> signing) {
+        String id = definition.getId();
+        if (algorithm == SignatureAlgorithm.HS512) {
+            String secret = value(definition.getSecret(), definition.getSecretFile());
+            if (secret == null) {
+                throw new IllegalStateException("HS512 anahtarı için secret verilmemiş: " + id);
+            }
+            rejectPublished(id, secret.trim());
+            Key key = hmacKey(id, Base64.getDecoder().decode(secret.trim()));
+            verification.put(id, key);
+            signing.put(id, key);
+            return;
+        }
+
+        String privatePem = value(definition.getPrivateKey(), definition.getPrivateKeyFile());
+        String publicPem = value(definition.getPublicKey(), definition.getPublicKeyFile());
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            PrivateKey privateKey = privatePem == null ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pem(privatePem)));
+            PublicKey publicKey;
+            if (publicPem != null) {
+                publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pem(publicPem)));
+            } else if (privateKey instanceof RSAPrivateCrtKey crt) {
+                publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(crt.getModulus(), crt.getPublicExponent()));
+            } else {
+                throw new IllegalStateException("RS256 anahtarı için açık ya da özel anahtar verilmemiş: " + id);
+            }
+            verification.put(id, publicKey);
+            if (privateKey != null) {
+                signing.put(id, privateKey);
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("RS256 anahtarı okunamadı: " + id, e);
+        }
+    }
+
+    private static void rejectPublished(String id, String secret) {
+        if (PUBLISHED_SECRETS.contains(secret.trim())) {
+            throw new IllegalStateException("JWT anahtarı herkese açık bir örnek değer, yeni bir anahtar üretin: " + id);
+        }
+    }
+
+    private static Key hmacKey(String id, byte[] secret) {
+        if (secret.length < 64) {
+            throw new IllegalStateException("HS512 anahtarı en az 64 bayt olmalı: " + id);
+        }
+        return Keys.hmacShaKeyFor(secret);
+    }
+
+    private static String value(String inline, Resource file) {
+        if (inline != null && !inline.isBlank()) {
+            return inline;
+        }
+        if (file == null) {
+            return null;
+        }
+        try {
+            return file.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("JWT anahtar dosyası okunamadı: " + file.getDescription(), e);
+        }
+    }
+
+    private static byte[] pem(String pem) {
+        String body = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+}
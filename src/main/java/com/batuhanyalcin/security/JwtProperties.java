@@ -0,0 +1,43 @@
+package com.batuhanyalcin.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// JWT imza anahtarları. Anahtar rotasyonu: yeni anahtar listeye eklenir ve active-key-id ona çevrilir;
+// eski anahtar, onunla imzalanmış son token'ın süresi dolana kadar (app.jwt-expiration-milliseconds) listede kalır.
+// keys boşsa app.jwt-secret (JWT_SECRET ortam değişkeni) tek HS512 anahtarı ("default") olarak kullanılır.
+// Depoda anahtar tutulmaz; hiçbiri verilmezse uygulama açılmaz
+@Data
+@ConfigurationProperties("app.jwt")
+public class JwtProperties {
+
+    // HS512: tüm düğümler aynı gizli anahtarı paylaşır. RS256: imzalayan düğüm özel anahtarı tutar,
+    // yalnızca doğrulama yapan düğümlerde açık anahtar yeterlidir
+    private SignatureAlgorithm algorithm = SignatureAlgorithm.HS512;
+
+    // Yeni token'ları imzalayan anahtar; boşsa listedeki ilk anahtar kullanılır
+    private String activeKeyId;
+
+    private List<KeyDefinition> keys = new ArrayList<>();
+
+    // Değer doğrudan ya da dosyadan (file:/classpath:) verilebilir; ikisi birden verilirse değer geçerlidir
+    @Data
+    public static class KeyDefinition {
+        private String id;
+
+        // HS512 için Base64 kodlu, en az 64 bayt gizli anahtar
+        private String secret;
+        private Resource secretFile;
+
+        // RS256 için PEM (PKCS#8 özel, X.509 açık anahtar); açık anahtar verilmezse özel anahtardan türetilir
+        private String privateKey;
+        private Resource privateKeyFile;
+        private String publicKey;
+        private Resource publicKeyFile;
+    }
+}
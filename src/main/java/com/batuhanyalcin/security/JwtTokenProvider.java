@@ -1,30 +1,24 @@
 package com.batuhanyalcin.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
-
     @Value("${app.jwt-expiration-milliseconds}")
     private long jwtExpirationInMs;
 
-    private Key key;
-
-    public JwtTokenProvider() {
-        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
-    }
+    // JwtUtils ile aynı anahtar halkası; tüm düğümler yapılandırmadaki anahtarlarla imzalar ve doğrular
+    @Autowired
+    private JwtKeyRing keyRing;
 
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
@@ -36,18 +30,17 @@ public class JwtTokenProvider {
                 .collect(Collectors.joining(","));
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKeyId())
                 .setSubject(username)
                 .claim("roles", roles)
                 .setIssuedAt(currentDate)
                 .setExpiration(expireDate)
-                .signWith(key)
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm())
                 .compact();
     }
 
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        Claims claims = keyRing.parser()
                 .parseClaimsJws(token)
                 .getBody();
         return claims.getSubject();
@@ -55,13 +48,10 @@ public class JwtTokenProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+            keyRing.parser().parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,55 +1,113 @@
 package com.batuhanyalcin.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    // Standart iat saniye hassasiyetindedir; iptal karşılaştırması için veriliş anı milisaniye olarak da taşınır
+    public static final String CLAIM_ISSUED_AT_MILLIS = "iatms";
 
     @Value("${app.jwt-expiration-milliseconds}")
     private int jwtExpirationMs;
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+    // Doğrulanmış token claim'lerinin tutulduğu LRU önbelleğin boyutu
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize = 10000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Anahtar token'ın SHA-256 özetidir; token'ın kendisi bellekte tutulmaz.
+    // Yalnızca imzası doğrulanmış token'lar eklenir, geçersiz token'lar önbelleği dolduramaz
+    private Map<String, CachedClaims> verified;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        verified = new LinkedHashMap<>(Math.min(claimsCacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > claimsCacheSize;
+            }
+        };
+        hits = Counter.builder("cache.gets").tag("cache", "jwt-claims").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("cache.gets").tag("cache", "jwt-claims").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", this, JwtUtils::cachedTokenCount).tag("cache", "jwt-claims").register(meterRegistry);
+    }
 
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
+        // Kimlik ve roller token'da taşınır; istek doğrulaması kullanıcı tablosunu okumaz
+        Date issuedAt = new Date();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKeyId())
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key, SignatureAlgorithm.HS512)
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_ISSUED_AT_MILLIS, issuedAt.getTime())
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + jwtExpirationMs))
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm())
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
+    // İmza ve süre tek seferde doğrulanır; geçersiz token için null döner.
+    // Dönen Claims önbellekteki örnektir ve birden fazla istek tarafından paylaşılır, değiştirilmemelidir
+    public Claims getValidatedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.error("JWT claims string boş");
+            return null;
+        }
+
+        String digest = digest(token);
+        Claims cached = getCached(digest);
+        if (cached != null) {
+            return cached;
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = keyRing.parser().parseClaimsJws(token).getBody();
+            // Süresi olmayan token önbelleğe alınmaz; her seferinde doğrulanır
+            if (claims.getExpiration() != null) {
+                synchronized (verified) {
+                    verified.put(digest, new CachedClaims(claims, claims.getExpiration().getTime()));
+                }
+            }
+            return claims;
         } catch (SecurityException e) {
             logger.error("Geçersiz JWT imzası: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -62,6 +120,56 @@ public class JwtUtils {
             logger.error("JWT claims string boş: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = getValidatedClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+
+    public int cachedTokenCount() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    // Kayıt token'ın kendi exp zamanına kadar geçerlidir; süresi dolan kayıt silinir ve token yeniden doğrulanır
+    private Claims getCached(String digest) {
+        synchronized (verified) {
+            CachedClaims entry = verified.get(digest);
+            if (entry != null && entry.expiresAtMillis > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.claims;
+            }
+            if (entry != null) {
+                verified.remove(digest);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedClaims {
+        private final Claims claims;
+        private final long expiresAtMillis;
+
+        private CachedClaims(Claims claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
     }
-} 
\ No newline at end of file
+}
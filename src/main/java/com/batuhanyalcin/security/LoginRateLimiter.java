@@ -0,0 +1,175 @@
+package com.batuhanyalcin.security;
+
+import com.batuhanyalcin.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Giriş denemelerini kullanıcı adı ve istemci IP'si başına token bucket ile sınırlar. Kontrol kullanıcı
+// tablosuna ve BCrypt'e gitmeden önce yapılır; kısıtlanan deneme 429 alır.
+// Her kova tek bir AtomicLong'dur (kovanın yeniden dolacağı an) ve CAS ile güncellenir; kilit yoktur.
+// Dolu kovalar bellekte tutulmaz, kayıt sayısı max-entries ile sınırlıdır
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    // Kullanıcı başına: capacity kadar ardışık deneme, sonra her refill-period'da bir deneme
+    @Value("${app.login-throttle.user.capacity:5}")
+    private int userCapacity = 5;
+
+    @Value("${app.login-throttle.user.refill-period:1m}")
+    private Duration userRefillPeriod = Duration.ofMinutes(1);
+
+    // IP başına sınır daha geniştir; NAT arkasındaki kullanıcılar aynı kovayı paylaşır
+    @Value("${app.login-throttle.ip.capacity:30}")
+    private int ipCapacity = 30;
+
+    @Value("${app.login-throttle.ip.refill-period:2s}")
+    private Duration ipRefillPeriod = Duration.ofSeconds(2);
+
+    // Kova türü başına en fazla kayıt; dolarsa önce dolu kovalar, yetmezse rastgele kovalar atılır
+    @Value("${app.login-throttle.max-entries:100000}")
+    private int maxEntries = 100_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LongSupplier clock = System::nanoTime;
+
+    private Buckets users;
+    private Buckets ips;
+
+    @PostConstruct
+    void init() {
+        users = new Buckets("user", userCapacity, userRefillPeriod);
+        ips = new Buckets("ip", ipCapacity, ipRefillPeriod);
+    }
+
+    // Önce IP kontrol edilir; kısıtlanmış IP'den gelen deneme kullanıcının kovasını tüketmez.
+    // IP, request.getRemoteAddr() değeridir; proxy arkasında server.forward-headers-strategy ile çözülmelidir
+    public void checkLogin(String username, String clientIp) {
+        long now = clock.getAsLong();
+        long wait = ips.tryAcquire(clientIp == null ? "" : clientIp, now);
+        if (wait == 0) {
+            wait = users.tryAcquire(userKey(username), now);
+        }
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999));
+            logger.warn("Giriş denemesi kısıtlandı - username: {}, ip: {}", username, clientIp);
+            throw new TooManyRequestsException("Çok fazla giriş denemesi, lütfen daha sonra tekrar deneyin",
+                    retryAfterSeconds);
+        }
+    }
+
+    // Başarılı girişte kullanıcının kovası sıfırlanır; IP kovası sıfırlanmaz, aksi halde geçerli bir hesabı
+    // olan saldırgan IP sınırını aşabilirdi
+    public void loginSucceeded(String username) {
+        users.reset(userKey(username));
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-throttle.cleanup-interval:1m}")
+    public void removeFullBuckets() {
+        long now = clock.getAsLong();
+        users.removeFull(now);
+        ips.removeFull(now);
+    }
+
+    public int size() {
+        return users.size() + ips.size();
+    }
+
+    private static String userKey(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private final class Buckets {
+        private final long intervalNanos;
+        private final long burstNanos;
+        // key -> kovanın tamamen dolacağı an (nanoTime); bu an geçmişse kova doludur
+        private final ConcurrentHashMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private final Counter throttled;
+        private final Counter evictions;
+
+        private Buckets(String name, int capacity, Duration refillPeriod) {
+            this.intervalNanos = refillPeriod.toNanos();
+            this.burstNanos = Math.multiplyExact(intervalNanos, (long) capacity);
+            this.throttled = Counter.builder("login.throttled").tag("key", name).register(meterRegistry);
+            this.evictions = Counter.builder("login.throttle.evictions").tag("key", name).register(meterRegistry);
+            Gauge.builder("login.throttle.size", fullAt, ConcurrentHashMap::size).tag("key", name)
+                    .register(meterRegistry);
+        }
+
+        // 0: token alındı; aksi halde bir sonraki tokena kalan süre (ns). Her deneme dolma anını bir aralık ileri atar
+        private long tryAcquire(String key, long now) {
+            AtomicLong bucket = fullAt.get(key);
+            if (bucket == null) {
+                if (fullAt.size() >= maxEntries) {
+                    evict(now);
+                }
+                bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = bucket.get();
+                long next = Math.max(current, now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    throttled.increment();
+                    return next - now - burstNanos;
+                }
+                if (bucket.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void reset(String key) {
+            fullAt.remove(key);
+        }
+
+        private void removeFull(long now) {
+            fullAt.values().removeIf(bucket -> bucket.get() <= now);
+        }
+
+        // Tek iş parçacığı temizler, diğerleri beklemeden devam eder. Dolu olmayan bir kovanın atılması
+        // o anahtar için sınırı bir kez sıfırlar; diğer kova türü yine uygulanır
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                int before = fullAt.size();
+                removeFull(now);
+                int target = maxEntries - Math.max(1, maxEntries / 10);
+                Iterator<String> keys = fullAt.keySet().iterator();
+                while (fullAt.size() > target && keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+                evictions.increment(Math.max(0, before - fullAt.size()));
+            } finally {
+                evicting.set(false);
+            }
+        }
+
+        private int size() {
+            return fullAt.size();
+        }
+    }
+}
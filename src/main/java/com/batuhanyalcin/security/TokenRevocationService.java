@@ -0,0 +1,150 @@
+package com.batuhanyalcin.security;
+
+import com.batuhanyalcin.model.TokenRevocation;
+import com.batuhanyalcin.repository.TokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token iptallerini bellekte tutar; istek doğrulaması yalnızca bu map'e bakar.
+// Kaynak token_revocations tablosudur: açılışta token ömrü kadar geriye dönük iptaller yüklenir,
+// diğer düğümlerin yaptığı iptaller periyodik olarak okunur. Ömrü dolmuş token'ların iptali tutulmaz
+@Service
+public class TokenRevocationService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.jwt-expiration-milliseconds:3600000}")
+    private long jwtExpirationMs = 3_600_000;
+
+    // Diğer düğümlerdeki iptallerin bu düğüme yansıma süresi en fazla bu aralık kadardır
+    @Value("${app.jwt.revocation-refresh-interval:30s}")
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    // userId -> milisaniye cinsinden iptal anı; bu anda ya da öncesinde verilmiş token'lar reddedilir
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile LocalDateTime lastRefresh;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    // Karşılaştırma milisaniye hassasiyetindedir; iptalden hemen sonra alınan token geçerlidir.
+    // iatms claim'i olmayan eski token'larda saniyelik iat kullanılır; iptalle aynı saniyede verilmişse reddedilir
+    public boolean isRevoked(Long userId, Claims claims) {
+        Long cutoff = revokedBefore.get(userId);
+        if (cutoff == null) {
+            return false;
+        }
+        Long issuedAt = issuedAtMillis(claims);
+        return issuedAt == null || issuedAt <= cutoff;
+    }
+
+    // Çağıranın işleminde iptal satırını yazar; bu düğümde commit'ten sonra hemen geçerli olur.
+    // Satır kullanıcıdan bağımsızdır; aynı işlemde kullanıcı silinse de iptal kalıcıdır
+    public void revokeAll(Long userId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        tokenRevocationRepository.save(new TokenRevocation(userId, now));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(userId, now);
+                }
+            });
+        } else {
+            remember(userId, now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-refresh-interval:30s}",
+            initialDelayString = "${app.jwt.revocation-refresh-interval:30s}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Token iptalleri okunamadı: {}", e.getMessage(), e);
+        }
+    }
+
+    // Pencere bir aralık geriden başlar; geç commit edilen iptaller de okunur
+    public void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime oldest = started.minusNanos(jwtExpirationMs * 1_000_000);
+        LocalDateTime since = lastRefresh == null ? oldest : lastRefresh.minus(refreshInterval);
+        if (since.isBefore(oldest)) {
+            since = oldest;
+        }
+
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtAfter(since)) {
+            remember(revocation.getUserId(), revocation.getRevokedAt());
+        }
+        long expiredBefore = epochMilli(oldest);
+        revokedBefore.values().removeIf(cutoff -> cutoff < expiredBefore);
+        lastRefresh = started;
+    }
+
+    // Token ömründen eski iptal satırları artık hiçbir token'ı etkilemez
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-purge-interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(jwtExpirationMs * 1_000_000);
+        Integer deleted = transactionTemplate.execute(status -> tokenRevocationRepository.deleteRevokedBefore(before));
+        if (deleted != null && deleted > 0) {
+            logger.debug("Süresi dolan {} token iptali silindi", deleted);
+        }
+    }
+
+    public int size() {
+        return revokedBefore.size();
+    }
+
+    private void remember(Long userId, LocalDateTime revokedAt) {
+        revokedBefore.merge(userId, epochMilli(revokedAt), Math::max);
+    }
+
+    private static Long issuedAtMillis(Claims claims) {
+        Long millis = claims.get(JwtUtils.CLAIM_ISSUED_AT_MILLIS, Long.class);
+        if (millis != null) {
+            return millis;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? null : issuedAt.getTime();
+    }
+
+    private static long epochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
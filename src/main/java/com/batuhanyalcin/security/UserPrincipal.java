@@ -2,6 +2,7 @@ package com.batuhanyalcin.security;
 
 import com.batuhanyalcin.model.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -41,6 +42,21 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    // Token claim'lerinden kurulur; veritabanına gidilmez, e-posta ve şifre taşınmaz.
+    // Kullanıcı id'si olmayan token için null döner
+    public static UserPrincipal fromClaims(Claims claims) {
+        Number id = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        if (id == null) {
+            return null;
+        }
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+
+        return new UserPrincipal(id.longValue(), claims.getSubject(), null, null, authorities);
+    }
+
     public Long getId() {
         return id;
     }
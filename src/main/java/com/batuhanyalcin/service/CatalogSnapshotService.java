@@ -0,0 +1,288 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Public ürün listesini hazır UTF-8 JSON (ve gzip) baytları olarak tutar; yazmalardan sonra arka planda yenilenir.
+// Ürün ekleme, güncelleme ve silme kısa bir debounce ile yansır. Her siparişte gelen stok değişimleri tam taramayı
+// tetiklemez; stock-refresh-interval aralığıyla toplu olarak yansır. Başka düğümlerdeki yazmalar yerel olay üretmez;
+// aynı aralıkta katalogun veritabanı özeti okunur, özet değiştiyse veya görüntü max-age'den eskiyse yeniden oluşturulur.
+// ETag JSON baytlarının özetidir; aynı katalogu sunan düğümler aynı ETag'i üretir, yük dengeleyici arkasında koşullu
+// istekler düğümden bağımsız eşleşir
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    public static final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final long version;
+        private final int productCount;
+        private final Instant builtAt;
+        private final Fingerprint fingerprint;
+
+        Snapshot(byte[] json, byte[] gzip, String etag, long version, int productCount, Instant builtAt,
+                 Fingerprint fingerprint) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.version = version;
+            this.productCount = productCount;
+            this.builtAt = builtAt;
+            this.fingerprint = fingerprint;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int getProductCount() {
+            return productCount;
+        }
+
+        public Instant getBuiltAt() {
+            return builtAt;
+        }
+    }
+
+    private record Fingerprint(long productCount, long maxId, long versionSum, long stockSum) {
+    }
+
+    private record Catalog(int productCount, Fingerprint fingerprint) {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog-snapshot.debounce:500ms}")
+    private Duration debounce = Duration.ofMillis(500);
+
+    // Yalnızca stok değiştiyse katalog en fazla bu sıklıkla yeniden oluşturulur
+    @Value("${app.catalog-snapshot.stock-refresh-interval:10s}")
+    private Duration stockRefreshInterval = Duration.ofSeconds(10);
+
+    // Özetin yakalayamadığı, birbirini götüren stok değişimleri en geç bu süre sonra yansır
+    @Value("${app.catalog-snapshot.max-age:5m}")
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    private TransactionTemplate readOnlyTransaction;
+    private ScheduledExecutorService executor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicBoolean stockChanged = new AtomicBoolean();
+    private volatile Snapshot current;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    rebuild();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        getSnapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.STOCK_CHANGED) {
+            stockChanged.set(true);
+        } else {
+            requestRebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.stock-refresh-interval:10s}",
+            initialDelayString = "${app.catalog-snapshot.stock-refresh-interval:10s}")
+    public void refresh() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            return;
+        }
+        if (stockChanged.get()) {
+            requestRebuild();
+            return;
+        }
+        try {
+            boolean expired = snapshot.builtAt.plus(maxAge).isBefore(Instant.now());
+            if (expired || !snapshot.fingerprint.equals(readOnlyTransaction.execute(status -> readFingerprint()))) {
+                // Dışarıdaki değişiklik yerel sayacı artırmadı; artmasaydı yeni görüntü aynı sürümle reddedilirdi
+                catalogVersion.advance();
+                requestRebuild();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Katalog özeti okunamadı: {}", e.getMessage());
+        }
+    }
+
+    // Art arda gelen değişiklikler tek bir yeniden oluşturmada birleştirilir
+    public void requestRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                // Oluşturma sırasında gelen değişiklikler yeni bir tur planlayabilsin diye önce bayrak bırakılır
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Katalog anlık görüntüsü yenilenemedi: {}", e.getMessage(), e);
+                }
+            }, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void rebuild() {
+        // Sürüm veriden önce alınır; okuma sırasında commit edilen değişiklik sayacı artırır ve yeni bir tur başlatır.
+        // Bu turda okunacak stok değişimleri de işaretten düşülür
+        long version = catalogVersion.current();
+        stockChanged.set(false);
+        long started = System.nanoTime();
+
+        Snapshot previous = current;
+        ByteArrayOutputStream json = new ByteArrayOutputStream(Math.max(previous == null ? 0 : previous.json.length, 8192));
+        // Özet veriden önce okunur; arada commit edilen yazma bir sonraki kontrolde fark edilir, kaçırılmaz
+        Catalog catalog = readOnlyTransaction.execute(status -> {
+            Fingerprint fingerprint = readFingerprint();
+            return new Catalog(writeCatalog(json), fingerprint);
+        });
+        int count = catalog.productCount();
+        byte[] jsonBytes = json.toByteArray();
+
+        Snapshot snapshot = new Snapshot(jsonBytes, gzip(jsonBytes), etag(jsonBytes), version, count, Instant.now(),
+                catalog.fingerprint());
+        if (!swap(snapshot)) {
+            logger.debug("Katalog anlık görüntüsü atlandı: sürüm {} daha yeni bir görüntüyle değiştirilmişti", version);
+            return;
+        }
+        logger.info("Katalog anlık görüntüsü oluşturuldu: {} ürün, {} bayt, {} ms",
+                count, jsonBytes.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    // Açılıştaki ve arka plandaki oluşturma çakışabilir; daha eski sürümden okunmuş görüntü yenisinin yerine geçmez
+    private synchronized boolean swap(Snapshot snapshot) {
+        Snapshot existing = current;
+        if (existing != null && existing.version >= snapshot.version) {
+            return false;
+        }
+        current = snapshot;
+        return true;
+    }
+
+    private Fingerprint readFingerprint() {
+        ProductRepository.CatalogFingerprint fingerprint = productRepository.findCatalogFingerprint();
+        return new Fingerprint(fingerprint.getProductCount(), fingerprint.getMaxId(), fingerprint.getVersionSum(),
+                fingerprint.getStockSum());
+    }
+
+    private int writeCatalog(ByteArrayOutputStream out) {
+        int count = 0;
+        try (Stream<ProductResponseDTO> products = productRepository.streamAllDTOs();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            Iterator<ProductResponseDTO> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                count++;
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    // 128 bitlik özet çakışmasız ETag için yeterli; başlık kısa kalır
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"c" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Katalog özeti hesaplanamadı", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(data.length / 4, 512));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
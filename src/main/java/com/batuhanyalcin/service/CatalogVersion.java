@@ -0,0 +1,29 @@
+package com.batuhanyalcin.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Katalogdaki her commit edilmiş değişiklikte artan düğüm içi sayaç. Yalnızca bu düğümde oluşturulan anlık görüntüleri
+// sıralamak için kullanılır; düğümler arasında karşılaştırılamaz, liste ETag'i bu yüzden içerikten üretilir
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    public long current() {
+        return counter.get();
+    }
+
+    // Başka düğümde commit edilen ve yalnızca veritabanı özetinden fark edilen değişiklikler için
+    public void advance() {
+        counter.incrementAndGet();
+    }
+
+    // Commit sonrası artırılır; önce artsaydı eski veri yeni sürümle etiketlenebilirdi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        advance();
+    }
+}
@@ -0,0 +1,213 @@
+package com.batuhanyalcin.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Admin paneli istatistiklerini bellekte tutar. Süresi geçmiş anlık görüntü beklemeden döner ve arka planda
+// tek bir yenileme başlatılır; aynı anda gelen istekler yeni sorgu çalıştırmaz.
+// Altı bölüm sınırlı bir havuzda paralel sorgulanır; süresi dolan ya da hata veren bölüm önceki görüntüdeki
+// değeriyle gelir ve partialSections listesinde bildirilir. Her bölüm zaman aşımlı salt okunur bir işlemde
+// çalışır; süre dolduğunda veritabanı sorgusu da iptal edilir ve bağlantı havuza döner
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    public static final class Snapshot {
+        private final Map<String, Object> stats;
+        private final Instant builtAt;
+
+        Snapshot(Map<String, Object> stats, Instant builtAt) {
+            this.stats = stats;
+            this.builtAt = builtAt;
+        }
+
+        public Map<String, Object> getStats() {
+            return stats;
+        }
+
+        public Instant getBuiltAt() {
+            return builtAt;
+        }
+
+        public Duration getAge() {
+            return Duration.between(builtAt, Instant.now());
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Bu süreden eski görüntü okunduğunda arka planda yenilenir
+    @Value("${app.dashboard.max-age:10s}")
+    private Duration maxAge = Duration.ofSeconds(10);
+
+    // Bölüm başına süre; işlem zaman aşımı olarak JPA sorgularına ve JDBC Statement'larına da uygulanır.
+    // İşlem zaman aşımı saniye hassasiyetindedir, kesirli süreler yukarı yuvarlanır
+    @Value("${app.dashboard.query-timeout:2s}")
+    private Duration queryTimeout = Duration.ofSeconds(2);
+
+    @Value("${app.dashboard.query-threads:6}")
+    private int queryThreads = 6;
+
+    private ExecutorService executor;
+    private ThreadPoolExecutor queryExecutor;
+    private TransactionTemplate queryTransaction;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot current;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Kuyruk sınırlı; dolarsa bölüm reddedilir ve kısmi sonuç döner, bağlantı havuzu tükenmez
+        AtomicInteger threadCount = new AtomicInteger();
+        queryExecutor = new ThreadPoolExecutor(queryThreads, queryThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queryThreads * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        queryExecutor.allowCoreThreadTimeOut(true);
+
+        queryTransaction = new TransactionTemplate(transactionManager);
+        queryTransaction.setReadOnly(true);
+        queryTransaction.setTimeout((int) Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        queryExecutor.shutdownNow();
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    current = build();
+                }
+                snapshot = current;
+            }
+        } else if (snapshot.getAge().compareTo(maxAge) > 0) {
+            requestRefresh();
+        }
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.refresh-interval:30s}",
+            initialDelayString = "${app.dashboard.refresh-interval:30s}")
+    public void scheduledRefresh() {
+        requestRefresh();
+    }
+
+    // Yenileme sürerken gelen talepler yok sayılır; hata olursa eski görüntü sunulmaya devam eder
+    public void requestRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    current = build();
+                } catch (RuntimeException e) {
+                    logger.error("Panel istatistikleri yenilenemedi: {}", e.getMessage(), e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private Snapshot build() {
+        long started = System.nanoTime();
+        Snapshot previous = current;
+        Map<String, CompletableFuture<Object>> sections = new LinkedHashMap<>();
+
+        // Toplam kullanıcı sayısı
+        sections.put("totalUsers", query(userService::getUserCount));
+
+        // Toplam sipariş sayısı
+        sections.put("totalOrders", query(orderService::getOrderCount));
+
+        // Toplam ürün sayısı
+        sections.put("totalProducts", query(productService::getProductCount));
+
+        // Toplam gelir
+        sections.put("revenue", query(orderService::getTotalRevenue));
+
+        // Son 5 sipariş
+        sections.put("recentOrders", query(() -> orderService.getRecentOrders(5)));
+
+        // Duruma göre sipariş sayıları
+        sections.put("orderStatusCounts", query(orderService::getOrderStatusCounts));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        List<String> partial = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Object>> section : sections.entrySet()) {
+            try {
+                stats.put(section.getKey(), section.getValue().join());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Panel bölümü alınamadı: {} ({})", section.getKey(), cause.toString());
+                partial.add(section.getKey());
+                if (previous != null && previous.stats.containsKey(section.getKey())) {
+                    stats.put(section.getKey(), previous.stats.get(section.getKey()));
+                }
+            }
+        }
+        if (!partial.isEmpty()) {
+            stats.put("partialSections", List.copyOf(partial));
+        }
+
+        logger.debug("Panel istatistikleri oluşturuldu: {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return new Snapshot(Collections.unmodifiableMap(stats), Instant.now());
+    }
+
+    private CompletableFuture<Object> query(Supplier<?> section) {
+        try {
+            return CompletableFuture.<Object>supplyAsync(() -> queryTransaction.execute(status -> section.get()), queryExecutor)
+                    .orTimeout(queryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Ürün ve siparişleri veritabanı imleci üzerinden satır satır NDJSON olarak yazar; bellek kullanımı sabittir
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<ProductResponseDTO> products = productRepository.streamAllDTOs();
+             SequenceWriter writer = newLineWriter(out)) {
+            Iterator<ProductResponseDTO> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        logger.info("Ürün dışa aktarımı tamamlandı: {} satır", count);
+    }
+
+    // Sipariş ve kalem imleçleri aynı sırada (order id) okunur ve birleştirilir: sipariş başına ek sorgu yoktur
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamAll();
+             Stream<Object[]> itemRows = orderRepository.streamAllItemRows();
+             SequenceWriter writer = newLineWriter(out)) {
+            Iterator<Order> orderIterator = orders.iterator();
+            Iterator<Object[]> itemIterator = itemRows.iterator();
+            Object[] pendingItem = itemIterator.hasNext() ? itemIterator.next() : null;
+
+            while (orderIterator.hasNext()) {
+                Order order = orderIterator.next();
+                List<OrderItemDTO> items = new ArrayList<>();
+
+                while (pendingItem != null && (Long) pendingItem[0] <= order.getId()) {
+                    if (((Long) pendingItem[0]).equals(order.getId())) {
+                        OrderItemDTO item = new OrderItemDTO();
+                        item.setProductId((Long) pendingItem[1]);
+                        item.setQuantity((Integer) pendingItem[2]);
+                        items.add(item);
+                    }
+                    pendingItem = itemIterator.hasNext() ? itemIterator.next() : null;
+                }
+
+                OrderResponseDTO dto = new OrderResponseDTO();
+                dto.setId(order.getId());
+                dto.setUserId(order.getUser().getId());
+                dto.setOrderDate(order.getOrderDate());
+                dto.setTotalAmount(order.getTotalAmount());
+                dto.setStatus(order.getStatus().name());
+                dto.setOrderItems(items);
+
+                writer.write(dto);
+                entityManager.detach(order);
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                    entityManager.clear(); // Sipariş başına oluşan User proxy'leri de bırakılır
+                }
+            }
+        }
+        logger.info("Sipariş dışa aktarımı tamamlandı: {} satır", count);
+    }
+
+    private SequenceWriter newLineWriter(OutputStream out) throws IOException {
+        return objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+    }
+}
@@ -0,0 +1,150 @@
+package com.batuhanyalcin.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Flash satıştaki ürünlerin satılabilir stoğu; ayırmalar kilitsiz CAS ile bellekte kabul ya da reddedilir.
+// Ürün başına işlemi henüz bitmemiş ayırma sayısı da tutulur; ürün satıştan çıkarılırken bunlar beklenir
+@Component
+public class FlashSaleLedger {
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+
+    // Sayaç ayırma denenmeden önce artırılır; böylece deaktivasyondan sonra sıfır görülürse yeni ayırma gelemez
+    private final Map<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    // Satıştan çıkarılan ama bekleyen ayırmaları bitmemiş ürünler: defterden satılmaz, SQL yoluna da dönmez
+    private final Set<Long> draining = ConcurrentHashMap.newKeySet();
+
+    // Bir siparişin aldığı miktarlar; aynı sayaç nesnelerine geri bırakılır, böylece defter bu arada yeniden
+    // kurulduysa eski ayırma yeni sayacı şişirmez
+    public static final class Reservation {
+        private final List<AtomicInteger> counters;
+        private final List<Integer> quantities;
+        private final List<AtomicInteger> pending;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Reservation(List<AtomicInteger> counters, List<Integer> quantities, List<AtomicInteger> pending) {
+            this.counters = counters;
+            this.quantities = quantities;
+            this.pending = pending;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                for (int i = 0; i < counters.size(); i++) {
+                    counters.get(i).addAndGet(quantities.get(i));
+                }
+            }
+        }
+
+        // Ayırmayı yapan işlem commit ya da rollback ile bittiğinde çağrılır
+        public void complete() {
+            if (completed.compareAndSet(false, true)) {
+                pending.forEach(AtomicInteger::decrementAndGet);
+            }
+        }
+    }
+
+    // Boşaltılan ürün de aktif sayılır; siparişler onu SQL yolundan satmaz
+    public boolean isActive(Long productId) {
+        return available.containsKey(productId) || draining.contains(productId);
+    }
+
+    public Set<Long> activeProducts() {
+        return available.keySet();
+    }
+
+    public Integer available(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        return counter == null ? null : counter.get();
+    }
+
+    public void activate(Long productId, int stock) {
+        available.put(productId, new AtomicInteger(Math.max(stock, 0)));
+    }
+
+    public void deactivate(Long productId) {
+        available.remove(productId);
+        draining.remove(productId);
+    }
+
+    // Yeni ayırmalar durur; ürün deactivate edilene kadar hiçbir yoldan satılmaz
+    public void startDraining(Long productId) {
+        draining.add(productId);
+        available.remove(productId);
+    }
+
+    // Satıştan çıkarılan ürünün işlemi süren ayırmaları bitene kadar bekler; süre dolarsa false döner
+    public boolean awaitDrained(Long productId, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            AtomicInteger pending = inFlight.get(productId);
+            if (pending == null || pending.get() == 0) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    // Hepsi ya da hiçbiri: bir ürün yetmezse o ana kadar alınanlar geri bırakılır
+    public Optional<Reservation> tryReserve(SortedMap<Long, Integer> quantities) {
+        List<AtomicInteger> pending = new ArrayList<>(quantities.size());
+        for (Long productId : quantities.keySet()) {
+            AtomicInteger counter = inFlight.computeIfAbsent(productId, k -> new AtomicInteger());
+            counter.incrementAndGet();
+            pending.add(counter);
+        }
+
+        List<AtomicInteger> counters = new ArrayList<>(quantities.size());
+        List<Integer> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            AtomicInteger counter = available.get(entry.getKey());
+            if (counter == null || !tryTake(counter, entry.getValue())) {
+                Reservation failed = new Reservation(counters, taken, pending);
+                failed.release();
+                failed.complete();
+                return Optional.empty();
+            }
+            counters.add(counter);
+            taken.add(entry.getValue());
+        }
+        return Optional.of(new Reservation(counters, taken, pending));
+    }
+
+    // İptal edilen siparişlerin miktarı; yalnızca hâlâ flash satışta olan ürünlere eklenir
+    public void release(Map<Long, Integer> quantities) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            AtomicInteger counter = available.get(entry.getKey());
+            if (counter != null) {
+                counter.addAndGet(entry.getValue());
+            }
+        }
+    }
+
+    private static boolean tryTake(AtomicInteger counter, int quantity) {
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.FlashSaleStatusDTO;
+import com.batuhanyalcin.exception.InvalidRequestException;
+import com.batuhanyalcin.exception.ResourceNotFoundException;
+import com.batuhanyalcin.exception.ServiceUnavailableException;
+import com.batuhanyalcin.model.FlashSaleProduct;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.FlashSaleProductRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Flash satış modu: sıcak ürünlerin stoğu bellekteki defterden ayrılır, products satırına ise
+// commit edilmiş siparişlerin toplamı periyodik olarak tek UPDATE ile yansıtılır.
+// Çökme sonrası kurtarma: uygulanmamış kalemler (stock_applied = false) önce stoğa yazılır, defter sonra kurulur.
+// Ürün satış başlamadan önce kaydedilmeli; kayıt anında SQL yolunda süren siparişler defterin göremediği bir azaltma yapabilir.
+// Yalnızca tek düğümlü kurulumda çalışır: defter düğümün belleğindedir ve flash_sale_products yalnızca açılışta
+// okunur. Birden fazla düğümde diğerleri aynı ürünü SQL yolundan satmaya devam eder ya da her biri defteri aynı
+// stoktan kurar; ikisi de fazla satış demektir. Bu yüzden app.flash-sale.single-node=true verilmedikçe ürün
+// flash satışa alınamaz ve açılışta kayıtlı ürünler için defter kurulmaz (ürünler normal SQL yolundan satılır)
+@Service
+public class FlashSaleService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleService.class);
+
+    @Autowired
+    private FlashSaleLedger ledger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FlashSaleProductRepository flashSaleProductRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Satıştan çıkarırken işlemi süren ayırmaların en fazla bekleneceği süre
+    @Value("${app.flash-sale.drain-timeout:10s}")
+    private Duration drainTimeout = Duration.ofSeconds(10);
+
+    // Uygulamanın tek bir örnekle çalıştığını operatör açıkça onaylamalı
+    @Value("${app.flash-sale.single-node:false}")
+    private boolean singleNode = false;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Commit edilmiş flash siparişi varsa true; boş turlarda veritabanı sorgulanmaz
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Web sunucusu başlamadan çalışır; böylece ilk siparişler kurulmuş defteri görür
+    @Override
+    public void afterSingletonsInstantiated() {
+        flush();
+        List<FlashSaleProduct> enrolled = transactionTemplate.execute(status -> flashSaleProductRepository.findAll());
+        if (!singleNode) {
+            if (!enrolled.isEmpty()) {
+                logger.error("Flash satış kayıtları yok sayıldı: app.flash-sale.single-node=true değil, {} ürün SQL yolundan satılacak",
+                        enrolled.size());
+            }
+            return;
+        }
+        for (FlashSaleProduct flashSaleProduct : enrolled) {
+            productRepository.findById(flashSaleProduct.getProductId())
+                    .ifPresent(product -> ledger.activate(product.getId(), product.getStockQuantity()));
+        }
+        if (!enrolled.isEmpty()) {
+            logger.info("Flash satış defteri kuruldu: {} ürün", enrolled.size());
+        }
+    }
+
+    public boolean isActive(Long productId) {
+        return ledger.isActive(productId);
+    }
+
+    // Çağıranın işlemi içinde kullanılır; işlem geri alınırsa ayrılan miktar deftere döner
+    public boolean reserve(SortedMap<Long, Integer> quantities) {
+        Optional<FlashSaleLedger.Reservation> reservation = ledger.tryReserve(quantities);
+        if (reservation.isEmpty()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    flushPending.set(true);
+                } else {
+                    reservation.get().release();
+                }
+                reservation.get().complete();
+            }
+        });
+        return true;
+    }
+
+    // İptal edilen siparişin flash ürünlerindeki miktarı commit sonrası deftere geri eklenir
+    public void releaseAfterCommit(SortedMap<Long, Integer> quantities) {
+        SortedMap<Long, Integer> active = new TreeMap<>(quantities);
+        active.keySet().retainAll(ledger.activeProducts());
+        if (active.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ledger.release(active);
+            }
+        });
+    }
+
+    public List<FlashSaleStatusDTO> getStatus() {
+        return ledger.activeProducts().stream()
+                .sorted()
+                .map(productId -> new FlashSaleStatusDTO(productId, ledger.available(productId)))
+                .toList();
+    }
+
+    public FlashSaleStatusDTO enroll(Long productId) {
+        if (!singleNode) {
+            throw new InvalidRequestException(
+                    "Flash satış modu yalnızca tek düğümlü kurulumda kullanılabilir (app.flash-sale.single-node=true)");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Satır kilidi tutulurken okunan stok, SQL yolundaki commit edilmiş tüm azaltmaları içerir.
+                // Admin stok güncellemesi de aynı kilidi alıp defteri kilit altında kontrol eder
+                Product product = productRepository.findByIdForUpdate(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + productId));
+                if (flashSaleProductRepository.existsById(productId)) {
+                    throw new InvalidRequestException("Ürün zaten flash satışta: " + productId);
+                }
+                flashSaleProductRepository.save(new FlashSaleProduct(productId, LocalDateTime.now()));
+                ledger.activate(productId, product.getStockQuantity());
+            });
+        } catch (ResourceNotFoundException | InvalidRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            ledger.deactivate(productId);
+            throw e;
+        }
+        logger.info("Ürün flash satışa alındı: {}, stok: {}", productId, ledger.available(productId));
+        return new FlashSaleStatusDTO(productId, ledger.available(productId));
+    }
+
+    // Önce yeni ayırmalar durdurulur ve işlemi süren ayırmalar beklenir; ürün bu sırada hiçbir yoldan satılmaz.
+    // Commit edilen kalemler stoğa yazıldıktan sonra ürün normal SQL yoluna döner. Bekleme süresi dolarsa ürün
+    // satışa kapalı kalır ve istek 503 alır; tekrar denendiğinde bekleme kaldığı yerden sürer
+    public void remove(Long productId) {
+        if (!flashSaleProductRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Ürün flash satışta değil: " + productId);
+        }
+        ledger.startDraining(productId);
+        try {
+            if (!ledger.awaitDrained(productId, drainTimeout)) {
+                throw new ServiceUnavailableException("Flash satış siparişleri henüz tamamlanmadı: " + productId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Flash satıştan çıkarma kesildi: " + productId);
+        }
+        flush();
+        transactionTemplate.executeWithoutResult(status -> flashSaleProductRepository.deleteById(productId));
+        ledger.deactivate(productId);
+        logger.info("Ürün flash satıştan çıkarıldı: {}", productId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-interval:200ms}")
+    public void flushIfPending() {
+        if (flushPending.compareAndSet(true, false)) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                flushPending.set(true);
+                logger.error("Flash satış stokları yazılamadı: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    public void flush() {
+        Map<Long, Integer> applied = transactionTemplate.execute(status -> {
+            Map<Long, Integer> quantities = productRepository.applyPendingStock();
+            quantities.keySet().forEach(productId -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId)));
+            return quantities;
+        });
+        if (!applied.isEmpty()) {
+            logger.debug("Flash satış stokları yazıldı: {}", applied);
+        }
+    }
+}
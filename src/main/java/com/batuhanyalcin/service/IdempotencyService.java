@@ -0,0 +1,178 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.exception.IdempotencyKeyReuseException;
+import com.batuhanyalcin.exception.InvalidRequestException;
+import com.batuhanyalcin.model.IdempotencyRecord;
+import com.batuhanyalcin.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Idempotency-Key başlıklı sipariş istekleri: aynı kullanıcı ve anahtarla tekrar gelen istek siparişi yeniden
+// oluşturmaz, ilk yanıtı alır. Son yanıtlar bellekte, tamamı TTL süresince idempotency_keys tablosunda tutulur
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private TransactionTemplate transactionTemplate;
+    private Map<String, StoredResponse> recent;
+
+    private record StoredResponse(String requestHash, OrderResponseDTO response, LocalDateTime expiresAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        recent = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public OrderResponseDTO createOrder(Long userId, String idempotencyKey, OrderCreateDTO orderCreateDTO) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key 1-" + MAX_KEY_LENGTH + " karakter olmalıdır");
+        }
+        String cacheKey = userId + ":" + idempotencyKey;
+        String requestHash = hash(orderCreateDTO);
+
+        StoredResponse cached = getCached(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, idempotencyKey);
+        }
+
+        StoredResponse stored;
+        try {
+            stored = transactionTemplate.execute(status -> {
+                Optional<IdempotencyRecord> existing = recordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+                if (existing.isPresent()) {
+                    if (existing.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                        return toStored(existing.get());
+                    }
+                    recordRepository.delete(existing.get());
+                    recordRepository.flush();
+                }
+
+                // Anahtar sipariş oluşturulmadan önce alınır: aynı anahtarla eşzamanlı gelen istek unique kısıtta
+                // bu işlemin bitmesini bekler ve sipariş mantığını hiç çalıştırmadan yanıtı tekrar oynatır
+                LocalDateTime now = LocalDateTime.now();
+                IdempotencyRecord record = recordRepository.saveAndFlush(new IdempotencyRecord(
+                        null, userId, idempotencyKey, requestHash, null, null, now, now.plus(ttl)));
+
+                OrderResponseDTO response = orderService.createOrder(userId, orderCreateDTO);
+                record.setOrderId(response.getId());
+                record.setResponseBody(toJson(response));
+                return new StoredResponse(requestHash, response, record.getExpiresAt());
+            });
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord record = recordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElseThrow(() -> e);
+            stored = toStored(record);
+        }
+
+        synchronized (recent) {
+            recent.put(cacheKey, stored);
+        }
+        return replay(stored, requestHash, idempotencyKey);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:10m}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired(now));
+        synchronized (recent) {
+            recent.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+        }
+        if (deleted != null && deleted > 0) {
+            logger.debug("Süresi dolan {} idempotency kaydı silindi", deleted);
+        }
+    }
+
+    private StoredResponse getCached(String cacheKey) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(cacheKey);
+            if (stored != null && !stored.expiresAt().isAfter(LocalDateTime.now())) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private OrderResponseDTO replay(StoredResponse stored, String requestHash, String idempotencyKey) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(
+                    "Idempotency-Key farklı bir istek gövdesiyle tekrar kullanıldı: " + idempotencyKey);
+        }
+        return stored.response();
+    }
+
+    private StoredResponse toStored(IdempotencyRecord record) {
+        try {
+            OrderResponseDTO response = objectMapper.readValue(record.getResponseBody(), OrderResponseDTO.class);
+            return new StoredResponse(record.getRequestHash(), response, record.getExpiresAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Kayıtlı yanıt okunamadı: " + record.getId(), e);
+        }
+    }
+
+    private String toJson(OrderResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Yanıt kaydedilemedi", e);
+        }
+    }
+
+    private String hash(OrderCreateDTO orderCreateDTO) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(orderCreateDTO)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("İstek özeti hesaplanamadı", e);
+        }
+    }
+}
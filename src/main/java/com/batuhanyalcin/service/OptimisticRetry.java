@@ -0,0 +1,116 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// @Version çakışmalarında işlemi baştan çalıştırır. Her deneme kendi işleminde yürür ve veriyi yeniden okur;
+// denemeler arasında rastgele (full jitter) üstel bekleme yapılır. Yeniden denemeler ortak bir bütçeden düşülür:
+// her çağrı bütçeye küçük bir pay ekler, her yeniden deneme bir birim harcar. Böylece yoğun çakışmada
+// yeniden denemeler yükü katlamaz, istemciye 409 döner
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private static final long TOKEN = 1000;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.optimistic-retry.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Value("${app.optimistic-retry.backoff:10ms}")
+    private Duration backoff = Duration.ofMillis(10);
+
+    @Value("${app.optimistic-retry.max-backoff:200ms}")
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+    // Çağrı başına bütçeye eklenen yeniden deneme payı ve biriktirilebilecek en fazla yeniden deneme
+    @Value("${app.optimistic-retry.budget-ratio:0.1}")
+    private double budgetRatio = 0.1;
+
+    @Value("${app.optimistic-retry.budget-max:50}")
+    private int budgetMax = 50;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicLong budget = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        budget.set(budgetMax * TOKEN);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // Dış bir işlem varsa çakışma onun commit'inde ortaya çıkar; burada yeniden denemek aynı bayat veriyi okur
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts || !withdraw()) {
+                    String reason = attempt >= maxAttempts ? "attempts" : "budget";
+                    meterRegistry.counter("optimistic.lock.retries.exhausted",
+                            "operation", operation, "reason", reason).increment();
+                    logger.warn("Version çakışması yeniden denenmedi ({}, deneme {}, sebep {})", operation, attempt, reason);
+                    throw new ConcurrentUpdateException(
+                            "Kayıt eşzamanlı olarak güncellendi, lütfen tekrar deneyin", e);
+                }
+                sleep(attempt);
+            }
+        }
+    }
+
+    private void deposit() {
+        long share = (long) (budgetRatio * TOKEN);
+        long capacity = budgetMax * TOKEN;
+        budget.getAndUpdate(tokens -> Math.min(tokens + share, capacity));
+    }
+
+    private boolean withdraw() {
+        long tokens;
+        do {
+            tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = Math.min(maxBackoff.toNanos(), backoff.toNanos() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Yeniden deneme kesildi", e);
+        }
+    }
+}
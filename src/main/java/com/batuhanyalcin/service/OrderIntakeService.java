@@ -0,0 +1,312 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderIntakeStatusDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.exception.ResourceNotFoundException;
+import com.batuhanyalcin.exception.ServiceUnavailableException;
+import com.batuhanyalcin.model.OrderIntakeTicket;
+import com.batuhanyalcin.repository.OrderIntakeTicketRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Asenkron sipariş kabulü: talep order_intake_tickets tablosuna QUEUED olarak commit edildikten sonra 202 döner; kabul
+// edilen talep düğüm çökse de kaybolmaz ve durumu her düğümden okunabilir. İşçiler talepleri FOR UPDATE SKIP LOCKED ile
+// parti parti sahiplenir ve bir partideki siparişleri talep sonuçlarıyla birlikte tek işlemde commit eder
+// (OrderService.createOrders). Stoğu yetmeyen sipariş yalnızca kendisi başarısız olur; parti beklenmedik bir hatayla
+// geri alınırsa siparişler tek tek denenir. İşlem ortasında çöken düğümün kilitleri bırakılır, talepleri diğer işçiler alır
+@Service
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    public static final String STATUS_URL_PREFIX = "/api/orders/intake/";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIntakeTicketRepository ticketRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.order-intake.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${app.order-intake.workers:2}")
+    private int workers = 2;
+
+    @Value("${app.order-intake.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${app.order-intake.ticket-ttl:10m}")
+    private Duration ticketTtl = Duration.ofMinutes(10);
+
+    // Yerel kabuller işçileri hemen uyandırır; başka düğümlerde kabul edilen talepler en geç bu aralıkta alınır
+    @Value("${app.order-intake.poll-interval:1s}")
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // Bekleyen talep sayısı yerel kabul ve işlemeyle güncellenir, tablodan queue-depth-refresh-interval aralığıyla
+    // yenilenir; kapasite kontrolü bu yüzden yaklaşıktır
+    private final AtomicLong queued = new AtomicLong();
+    private final Semaphore signal = new Semaphore(0);
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer completedLatency;
+    private Timer failedLatency;
+    private Counter rejected;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("order.intake.queue.depth", queued, AtomicLong::get).register(meterRegistry);
+        completedLatency = Timer.builder("order.intake.latency").tag("outcome", "completed").register(meterRegistry);
+        failedLatency = Timer.builder("order.intake.latency").tag("outcome", "failed").register(meterRegistry);
+        rejected = Counter.builder("order.intake.rejected").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("order.intake.batch.size").register(meterRegistry);
+
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::runWorker, "order-intake-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workerThreads.add(thread);
+        }
+    }
+
+    // İşçiler elindeki partiyi bitirip durur; bekleyen talepler tabloda kalır ve diğer düğümlerce ya da yeniden
+    // başlatmadan sonra işlenir
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        signal.release(workerThreads.size());
+        for (Thread thread : workerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    // Kuyruk doluysa istek reddedilir (503); istemci Retry-After kadar bekleyip tekrar dener
+    public OrderIntakeStatusDTO submit(Long userId, OrderCreateDTO orderCreateDTO) {
+        if (!running) {
+            throw new ServiceUnavailableException("Sipariş kabulü şu anda kapalı");
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new ServiceUnavailableException("Sipariş kuyruğu dolu, lütfen daha sonra tekrar deneyin");
+        }
+        OrderIntakeTicket ticket;
+        try {
+            ticket = transactionTemplate.execute(status ->
+                    ticketRepository.save(new OrderIntakeTicket(userId, writeJson(orderCreateDTO))));
+        } catch (RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+        signal.release();
+        return toDTO(ticket);
+    }
+
+    // Talep yalnızca sahibine gösterilir; başkasının talebi bulunamadı olarak döner
+    public OrderIntakeStatusDTO getStatus(Long userId, String ticketId) {
+        return parseTicketId(ticketId)
+                .flatMap(ticketRepository::findById)
+                .filter(ticket -> ticket.getUserId().equals(userId))
+                .map(this::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Sipariş talebi bulunamadı: " + ticketId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-intake.purge-interval:1m}")
+    public void purgeFinishedTickets() {
+        int deleted = transactionTemplate.execute(status ->
+                ticketRepository.deleteFinishedBefore(LocalDateTime.now().minus(ticketTtl)));
+        if (deleted > 0) {
+            logger.debug("{} tamamlanmış sipariş talebi silindi", deleted);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-intake.queue-depth-refresh-interval:1s}")
+    public void refreshQueueDepth() {
+        queued.set(ticketRepository.countByStatus(OrderIntakeTicket.Status.QUEUED));
+    }
+
+    private void runWorker() {
+        while (running) {
+            int claimed = 0;
+            try {
+                claimed = processNextBatch();
+            } catch (RuntimeException e) {
+                logger.error("Sipariş işçisinde beklenmeyen hata: {}", e.getMessage(), e);
+            }
+            if (claimed == 0) {
+                try {
+                    signal.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int processNextBatch() {
+        List<UUID> claimedIds = new ArrayList<>();
+        List<OrderIntakeTicket> finished;
+        try {
+            finished = transactionTemplate.execute(status -> {
+                List<OrderIntakeTicket> batch = ticketRepository.claimQueued(PageRequest.of(0, batchSize));
+                batch.forEach(ticket -> claimedIds.add(ticket.getId()));
+                if (batch.size() < 2) {
+                    return List.of();
+                }
+                batchSizes.record(batch.size());
+                processBatch(batch);
+                return batch;
+            });
+        } catch (RuntimeException e) {
+            if (claimedIds.isEmpty()) {
+                throw e;
+            }
+            // Veritabanı hatası gibi beklenmeyen durumlarda siparişler kendi işlemlerinde tekrar denenir
+            logger.warn("Sipariş partisi geri alındı, {} sipariş tek tek denenecek: {}", claimedIds.size(), e.getMessage());
+            finished = List.of();
+        }
+        if (finished.isEmpty()) {
+            // Tek talep ya da geri alınan parti: sahiplik işlem bitince bırakıldı, her talep yeniden kilitlenerek işlenir
+            claimedIds.forEach(this::processOne);
+        } else {
+            finished.forEach(this::recordFinished);
+        }
+        return claimedIds.size();
+    }
+
+    private void processBatch(List<OrderIntakeTicket> batch) {
+        List<OrderService.BatchOrderResult> results = orderService.createOrders(batch.stream()
+                .map(ticket -> new OrderService.BatchOrderRequest(ticket.getUserId(), readRequest(ticket)))
+                .toList());
+        for (int i = 0; i < batch.size(); i++) {
+            OrderService.BatchOrderResult result = results.get(i);
+            if (result.error() != null) {
+                fail(batch.get(i), result.error());
+            } else {
+                complete(batch.get(i), result.order());
+            }
+        }
+    }
+
+    // Talep başka bir işçi tarafından alınmış ya da bitirilmişse atlanır
+    private void processOne(UUID ticketId) {
+        OrderIntakeTicket ticket;
+        try {
+            ticket = transactionTemplate.execute(status -> ticketRepository.claimQueuedById(ticketId)
+                    .map(claimed -> complete(claimed, orderService.createOrder(claimed.getUserId(), readRequest(claimed))))
+                    .orElse(null));
+        } catch (RuntimeException e) {
+            ticket = transactionTemplate.execute(status -> ticketRepository.claimQueuedById(ticketId)
+                    .map(claimed -> fail(claimed, e))
+                    .orElse(null));
+        }
+        if (ticket != null) {
+            recordFinished(ticket);
+        }
+    }
+
+    private OrderIntakeTicket complete(OrderIntakeTicket ticket, OrderResponseDTO response) {
+        ticket.setOrderId(response.getId());
+        ticket.setResponseBody(writeJson(response));
+        ticket.setStatus(OrderIntakeTicket.Status.COMPLETED);
+        ticket.setFinishedAt(LocalDateTime.now());
+        return ticket;
+    }
+
+    private OrderIntakeTicket fail(OrderIntakeTicket ticket, RuntimeException e) {
+        String error = e.getMessage();
+        ticket.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        ticket.setStatus(OrderIntakeTicket.Status.FAILED);
+        ticket.setFinishedAt(LocalDateTime.now());
+        return ticket;
+    }
+
+    // Yalnızca commit edilmiş sonuçlar ölçülür; geri alınan parti tek tek denemede sayılır
+    private void recordFinished(OrderIntakeTicket ticket) {
+        queued.decrementAndGet();
+        Duration latency = Duration.between(ticket.getAcceptedAt(), ticket.getFinishedAt());
+        (ticket.getStatus() == OrderIntakeTicket.Status.COMPLETED ? completedLatency : failedLatency).record(latency);
+    }
+
+    private OrderCreateDTO readRequest(OrderIntakeTicket ticket) {
+        try {
+            return objectMapper.readValue(ticket.getRequestBody(), OrderCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sipariş talebi okunamadı: " + ticket.getId(), e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sipariş talebi kaydedilemedi", e);
+        }
+    }
+
+    private static Optional<UUID> parseTicketId(String ticketId) {
+        try {
+            return Optional.of(UUID.fromString(ticketId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private OrderIntakeStatusDTO toDTO(OrderIntakeTicket ticket) {
+        OrderResponseDTO response = null;
+        if (ticket.getResponseBody() != null) {
+            try {
+                response = objectMapper.readValue(ticket.getResponseBody(), OrderResponseDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Sipariş talebi sonucu okunamadı: " + ticket.getId(), e);
+            }
+        }
+        return new OrderIntakeStatusDTO(ticket.getId().toString(), ticket.getStatus().name(),
+                STATUS_URL_PREFIX + ticket.getId(), ticket.getAcceptedAt(), response, ticket.getError());
+    }
+}
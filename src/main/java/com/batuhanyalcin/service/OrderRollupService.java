@@ -0,0 +1,175 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.OrderStatusTotal;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.OrderStatusTotalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Durum başına sipariş sayısını ve tutarını order_status_totals tablosunda tutar. Toplamlar sipariş yazan
+// işlemin içinde güncellenir, böylece panel geliri ve durum dağılımı sipariş geçmişini taramadan okunur.
+// Periyodik mutabakat tek bir GROUP BY sorgusuyla sapmayı düzeltir (ör. elle yapılan veritabanı değişiklikleri)
+@Service
+public class OrderRollupService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupService.class);
+
+    public static final List<String> REVENUE_STATUSES = List.of(OrderStatus.SHIPPED.name(), OrderStatus.DELIVERED.name());
+
+    // Durum başına satır sayısı; bir işlem her durum için hep aynı slotu kullanır
+    static final int SLOTS = 16;
+
+    @Autowired
+    private OrderStatusTotalRepository orderStatusTotalRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // İlk kurulumda tabloyu mevcut siparişlerden doldurur
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+    }
+
+    // Çağıranın işlemi içinde çalışır; sipariş geri alınırsa toplam da geri alınır
+    public void recordCreated(OrderStatus status, BigDecimal amount) {
+        recordCreated(status, 1, amount);
+    }
+
+    // Grup commit'te partinin toplamı tek güncellemeyle yazılır
+    public void recordCreated(OrderStatus status, long count, BigDecimal amount) {
+        add(status.name(), count, amount);
+    }
+
+    // Kilitler durum adı sırasıyla alınır; ters yönde iki geçiş birbirini kilitlemez
+    public void recordTransition(OrderStatus from, OrderStatus to, BigDecimal amount) {
+        if (from == to) {
+            return;
+        }
+        String fromStatus = from.name();
+        String toStatus = to.name();
+        if (fromStatus.compareTo(toStatus) < 0) {
+            add(fromStatus, -1, amount.negate());
+            add(toStatus, 1, amount);
+        } else {
+            add(toStatus, 1, amount);
+            add(fromStatus, -1, amount.negate());
+        }
+    }
+
+    public BigDecimal getRevenue() {
+        return orderStatusTotalRepository.sumTotalAmount(REVENUE_STATUSES);
+    }
+
+    // Bilinen her durum sıfırla başlar; tabloda olmayan durumlar da sonuçta yer alır
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (Object[] row : orderStatusTotalRepository.sumOrderCountByStatus()) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-rollup.reconcile-interval:1h}",
+            initialDelayString = "${app.order-rollup.reconcile-interval:1h}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.error("Sipariş toplamları doğrulanamadı: {}", e.getMessage(), e);
+        }
+    }
+
+    // Önce tüm toplam satırları kilitlenir, GROUP BY sonra okunur: kilidi bekleyen yazarlar commit ettikten sonra
+    // sayılır, henüz kilide ulaşmamış olanlar ise artışlarını düzeltilmiş değerin üzerine ekler
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, List<OrderStatusTotal>> rows = new HashMap<>();
+            for (OrderStatusTotal row : orderStatusTotalRepository.findAllForUpdate()) {
+                rows.computeIfAbsent(row.getStatus(), k -> new ArrayList<>()).add(row);
+            }
+
+            Map<String, Object[]> actual = new HashMap<>();
+            for (Object[] row : orderRepository.sumTotalsByStatus()) {
+                actual.put(((OrderStatus) row[0]).name(), row);
+            }
+
+            Set<String> statuses = new TreeSet<>();
+            for (OrderStatus orderStatus : OrderStatus.values()) {
+                statuses.add(orderStatus.name());
+            }
+            for (String orderStatus : statuses) {
+                List<OrderStatusTotal> slots = rows.computeIfAbsent(orderStatus, k -> new ArrayList<>());
+                ensureSlots(orderStatus, slots);
+
+                Object[] row = actual.get(orderStatus);
+                long expectedCount = row == null ? 0 : ((Number) row[1]).longValue();
+                BigDecimal expectedAmount = row == null ? BigDecimal.ZERO : (BigDecimal) row[2];
+                long recordedCount = slots.stream().mapToLong(OrderStatusTotal::getOrderCount).sum();
+                BigDecimal recordedAmount = slots.stream().map(OrderStatusTotal::getTotalAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                if (recordedCount != expectedCount || recordedAmount.compareTo(expectedAmount) != 0) {
+                    logger.warn("Sipariş toplamı sapması düzeltildi: {} kayıtlı {} / {}, gerçek {} / {}",
+                            orderStatus, recordedCount, recordedAmount, expectedCount, expectedAmount);
+                    meterRegistry.counter("order.rollup.drift", "status", orderStatus).increment();
+                    for (OrderStatusTotal slot : slots) {
+                        boolean first = slot.getSlot() == 0;
+                        slot.setOrderCount(first ? expectedCount : 0L);
+                        slot.setTotalAmount(first ? expectedAmount : BigDecimal.ZERO);
+                    }
+                }
+            }
+        });
+    }
+
+    private void ensureSlots(String orderStatus, List<OrderStatusTotal> slots) {
+        Set<Integer> existing = new TreeSet<>();
+        slots.forEach(slot -> existing.add(slot.getSlot()));
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (!existing.contains(slot)) {
+                slots.add(orderStatusTotalRepository.save(new OrderStatusTotal(orderStatus, slot, 0L, BigDecimal.ZERO)));
+            }
+        }
+    }
+
+    private void add(String status, long count, BigDecimal amount) {
+        int slot = (int) (Thread.currentThread().getId() % SLOTS);
+        if (orderStatusTotalRepository.add(status, slot, count, amount) == 0) {
+            // Satır yoksa sonraki mutabakat eksik sayıyı ve tutarı GROUP BY sonucundan ekler
+            logger.warn("Sipariş toplamı satırı bulunamadı: {} / {}", status, slot);
+        }
+    }
+}
@@ -2,36 +2,45 @@ package com.batuhanyalcin.service;
 
 import com.batuhanyalcin.dto.order.OrderCreateDTO;
 import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderPageDTO;
 import com.batuhanyalcin.dto.order.OrderResponseDTO;
 import com.batuhanyalcin.exception.InsufficientStockException;
 import com.batuhanyalcin.exception.InvalidOrderStatusException;
+import com.batuhanyalcin.exception.InvalidRequestException;
 import com.batuhanyalcin.exception.ResourceNotFoundException;
 import com.batuhanyalcin.model.Order;
 import com.batuhanyalcin.model.OrderItem;
+import com.batuhanyalcin.model.OrderStatus;
 import com.batuhanyalcin.model.Product;
 import com.batuhanyalcin.model.User;
 import com.batuhanyalcin.repository.OrderRepository;
 import com.batuhanyalcin.repository.ProductRepository;
 import com.batuhanyalcin.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
-    private static final List<String> VALID_STATUSES = Arrays.asList(
-            "PENDING", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED");
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private OrderRepository orderRepository;
@@ -42,130 +51,336 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
     @Transactional
     public OrderResponseDTO createOrder(Long userId, OrderCreateDTO orderCreateDTO) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId));
 
-        Order order = new Order();
-        order.setUser(user);
-        order.setOrderDate(LocalDateTime.now());
-        order.setStatus("PENDING");
+        // Aynı ürün birden fazla satırda gelebilir; miktarlar ürün id sırasıyla toplanır
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemDTO itemDTO : orderCreateDTO.getOrderItems()) {
+            quantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
 
-        List<OrderItem> orderItems = orderCreateDTO.getOrderItems().stream()
-                .map(itemDTO -> {
-                    Product product = productRepository.findById(itemDTO.getProductId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + itemDTO.getProductId()));
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Flash satıştaki ürünler bellekteki defterden, diğerleri products satırından ayrılır
+        SortedMap<Long, Integer> flashSaleQuantities = new TreeMap<>();
+        SortedMap<Long, Integer> stockQuantities = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Ürün bulunamadı: " + entry.getKey());
+            }
+            if (flashSaleService.isActive(entry.getKey())) {
+                flashSaleQuantities.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            // Okunan stok zaten yetmiyorsa veritabanına güncelleme gönderilmez
+            if (product.getStockQuantity() < entry.getValue()) {
+                throw new InsufficientStockException("Yetersiz stok: " + product.getName());
+            }
+            stockQuantities.put(entry.getKey(), entry.getValue());
+        }
+
+        if (!flashSaleQuantities.isEmpty() && !flashSaleService.reserve(flashSaleQuantities)) {
+            throw new InsufficientStockException("Yetersiz stok: " + products.get(flashSaleQuantities.firstKey()).getName());
+        }
+
+        // Asıl kontrol koşullu UPDATE'tedir; biri başarısız olursa işlem geri alınır ve diğer azaltmalar da geri döner
+        if (!stockQuantities.isEmpty()) {
+            List<Long> insufficient = productRepository.reserveStock(stockQuantities);
+            if (!insufficient.isEmpty()) {
+                throw new InsufficientStockException("Yetersiz stok: " + products.get(insufficient.get(0)).getName());
+            }
+        }
 
-                    if (product.getStockQuantity() < itemDTO.getQuantity()) {
+        Order savedOrder = orderRepository.save(buildOrder(user, orderCreateDTO, products, flashSaleQuantities.keySet()));
+        orderRollupService.recordCreated(savedOrder.getStatus(), savedOrder.getTotalAmount());
+        stockQuantities.keySet().forEach(productId -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId)));
+        return convertToDTO(savedOrder);
+    }
+
+    // Grup commit: partideki tüm siparişlerin ürün satırları tek seferde, id sırasıyla kilitlenir ve stok kilit altında
+    // sırayla dağıtılır. Kilit sırası senkron sipariş yoluyla aynıdır (önce ürünler id sırasıyla, sonra durum toplamı),
+    // böylece partiler birbirini ya da senkron siparişleri kilitlenmeye sokmaz. Stoğu yetmeyen ya da geçersiz sipariş
+    // yalnızca kendisi başarısız olur; diğerleri aynı işlemde commit edilir
+    @Transactional
+    public List<BatchOrderResult> createOrders(List<BatchOrderRequest> requests) {
+        Map<Long, User> users = userRepository.findAllById(requests.stream().map(BatchOrderRequest::userId).distinct().toList())
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<SortedMap<Long, Integer>> quantitiesByOrder = new ArrayList<>(requests.size());
+        SortedSet<Long> productIds = new TreeSet<>();
+        for (BatchOrderRequest request : requests) {
+            SortedMap<Long, Integer> quantities = new TreeMap<>();
+            for (OrderItemDTO itemDTO : request.order().getOrderItems()) {
+                quantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+            }
+            quantitiesByOrder.add(quantities);
+            productIds.addAll(quantities.keySet());
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        SortedSet<Long> stockProductIds = new TreeSet<>(products.keySet());
+        stockProductIds.removeIf(flashSaleService::isActive);
+        Map<Long, Integer> remaining = new HashMap<>(productRepository.lockStock(stockProductIds));
+
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+        Map<Integer, Order> accepted = new TreeMap<>();
+        SortedMap<Long, Integer> stockQuantities = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BatchOrderRequest request = requests.get(i);
+            try {
+                User user = users.get(request.userId());
+                if (user == null) {
+                    throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + request.userId());
+                }
+                SortedMap<Long, Integer> flashSaleQuantities = new TreeMap<>();
+                for (Map.Entry<Long, Integer> entry : quantitiesByOrder.get(i).entrySet()) {
+                    Product product = products.get(entry.getKey());
+                    if (product == null) {
+                        throw new ResourceNotFoundException("Ürün bulunamadı: " + entry.getKey());
+                    }
+                    if (!remaining.containsKey(entry.getKey())) {
+                        flashSaleQuantities.put(entry.getKey(), entry.getValue());
+                    } else if (remaining.get(entry.getKey()) < entry.getValue()) {
                         throw new InsufficientStockException("Yetersiz stok: " + product.getName());
                     }
+                }
+                if (!flashSaleQuantities.isEmpty() && !flashSaleService.reserve(flashSaleQuantities)) {
+                    throw new InsufficientStockException(
+                            "Yetersiz stok: " + products.get(flashSaleQuantities.firstKey()).getName());
+                }
+                for (Map.Entry<Long, Integer> entry : quantitiesByOrder.get(i).entrySet()) {
+                    if (!flashSaleQuantities.containsKey(entry.getKey())) {
+                        remaining.merge(entry.getKey(), -entry.getValue(), Integer::sum);
+                        stockQuantities.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                    }
+                }
+                accepted.put(i, buildOrder(user, request.order(), products, flashSaleQuantities.keySet()));
+            } catch (ResourceNotFoundException | InsufficientStockException e) {
+                results[i] = new BatchOrderResult(null, e);
+            }
+        }
 
-                    product.setStockQuantity(product.getStockQuantity() - itemDTO.getQuantity());
-                    productRepository.save(product);
+        // Satırlar zaten kilitli; koşullu UPDATE yalnızca güvenlik içindir ve burada başarısız olmamalı
+        if (!stockQuantities.isEmpty() && !productRepository.reserveStock(stockQuantities).isEmpty()) {
+            throw new IllegalStateException("Kilitli ürün stoğu beklenmedik şekilde değişti");
+        }
 
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setOrder(order);
-                    orderItem.setProduct(product);
-                    orderItem.setQuantity(itemDTO.getQuantity());
-                    orderItem.setPrice(product.getPrice());
-                    return orderItem;
-                })
-                .collect(Collectors.toList());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<Integer, Order> entry : accepted.entrySet()) {
+            Order savedOrder = orderRepository.save(entry.getValue());
+            totalAmount = totalAmount.add(savedOrder.getTotalAmount());
+            results[entry.getKey()] = new BatchOrderResult(convertToDTO(savedOrder), null);
+        }
+        if (!accepted.isEmpty()) {
+            orderRollupService.recordCreated(OrderStatus.PENDING, accepted.size(), totalAmount);
+        }
+        stockQuantities.keySet().forEach(productId -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId)));
+        return List.of(results);
+    }
 
-        order.setOrderItems(orderItems);
-        order.setTotalAmount(calculateTotalAmount(orderItems));
+    public record BatchOrderRequest(Long userId, OrderCreateDTO order) {
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+    // order ya da error'dan yalnızca biri doludur
+    public record BatchOrderResult(OrderResponseDTO order, RuntimeException error) {
     }
 
-    public List<OrderResponseDTO> getUserOrders(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId));
+    // İmleç son görülen sipariş id'sidir; sayfa başına sorgu sayısı sipariş ve kalem sayısından bağımsızdır
+    @Transactional(readOnly = true)
+    public OrderPageDTO getUserOrders(Long userId, String cursor, Integer limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId);
+        }
+        int pageSize = pageSize(limit);
+        long beforeId = parseCursor(cursor, Long.MAX_VALUE);
 
-        return orderRepository.findByUser(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<OrderResponseDTO> rows = orderRepository.findDTOsByUserIdBefore(userId, beforeId,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<OrderResponseDTO> page = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        attachItems(page);
+
+        String nextCursor = hasNext ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        return new OrderPageDTO(page, nextCursor, hasNext, pageSize);
     }
     
+    // Sipariş başlığı ve kalemleri projeksiyonla okunur; Order, OrderItem ve User entity'leri yüklenmez
+    @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        OrderResponseDTO order = orderRepository.findDTOById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sipariş bulunamadı: " + id));
-        return convertToDTO(order);
+        attachItems(List.of(order), orderRepository.findItemRowsByOrderId(id));
+        return order;
     }
     
-    @Transactional
-    public OrderResponseDTO updateOrderStatus(Long id, String newStatus) {
-        if (!VALID_STATUSES.contains(newStatus)) {
-            throw new InvalidOrderStatusException("Geçersiz sipariş durumu: " + newStatus);
+    // Geçiş tablosu OrderStatus'tadır; iptale geçiş stoğu iade eden iptal yolundan yürür
+    public OrderResponseDTO updateOrderStatus(Long id, String status) {
+        OrderStatus newStatus = parseStatus(status);
+        if (newStatus == OrderStatus.CANCELLED) {
+            return cancelOrder(id);
         }
         
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sipariş bulunamadı: " + id));
-        
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        return convertToDTO(updatedOrder);
+        return optimisticRetry.execute("order.status", () -> {
+            Order order = orderRepository.findWithItemsById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Sipariş bulunamadı: " + id));
+            if (order.getStatus() == newStatus) {
+                return convertToDTO(order);
+            }
+            if (!order.getStatus().canTransitionTo(newStatus)) {
+                throw new InvalidOrderStatusException(
+                        "Sipariş durumu " + order.getStatus() + " durumundan " + newStatus + " durumuna geçemez");
+            }
+
+            orderRollupService.recordTransition(order.getStatus(), newStatus, order.getTotalAmount());
+            order.setStatus(newStatus);
+            Order updatedOrder = orderRepository.saveAndFlush(order);
+            return convertToDTO(updatedOrder);
+        });
     }
     
-    @Transactional
+    // Eşzamanlı bir durum değişikliğiyle çakışırsa sipariş yeniden okunur; iptal edilemez duruma geçtiyse
+    // ikinci deneme reddeder, stok iki kez iade edilmez
     public OrderResponseDTO cancelOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        return optimisticRetry.execute("order.cancel", () -> doCancelOrder(id));
+    }
+
+    private OrderResponseDTO doCancelOrder(Long id) {
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sipariş bulunamadı: " + id));
         
         // Sadece PENDING veya PROCESSING durumundaki siparişler iptal edilebilir
-        if (!("PENDING".equals(order.getStatus()) || "PROCESSING".equals(order.getStatus()))) {
+        if (!order.getStatus().canTransitionTo(OrderStatus.CANCELLED)) {
             throw new InvalidOrderStatusException("Bu durumda sipariş iptal edilemez: " + order.getStatus());
         }
         
-        // Stok miktarlarını geri yükle
+        // Stok miktarlarını tek batch'te geri yükle; ürün proxy'leri yüklenmez, yalnızca id'leri okunur
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            productRepository.save(product);
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
         }
+        // Henüz stoğa yazılmamış flash kalemleri de burada geri eklenir; flush sonradan aynı miktarı düşer
+        productRepository.releaseStock(quantities);
+        flashSaleService.releaseAfterCommit(quantities);
+        quantities.keySet().forEach(productId -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId)));
         
-        order.setStatus("CANCELLED");
-        Order cancelledOrder = orderRepository.save(order);
+        orderRollupService.recordTransition(order.getStatus(), OrderStatus.CANCELLED, order.getTotalAmount());
+        order.setStatus(OrderStatus.CANCELLED);
+        Order cancelledOrder = orderRepository.saveAndFlush(order);
         return convertToDTO(cancelledOrder);
     }
 
     // Admin Panel için yeni metodlar
     
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<OrderResponseDTO> orders = orderRepository.findAllDTOs();
+        attachItems(orders, orderRepository.findAllItemRows());
+        return orders;
     }
     
+    // Açık (PENDING/PROCESSING) siparişler eskiden yeniye; imleç son görülen sipariş id'sidir.
+    // Id'ler kısmi indeksten okunur, başlıklar ve kalemler yalnızca sayfadaki siparişler için çekilir
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOpenOrders(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        long afterId = parseCursor(cursor, 0L);
+
+        List<Long> ids = orderRepository.findOpenOrderIdsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        List<OrderResponseDTO> page = pageIds.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(orderRepository.findDTOsByIdIn(pageIds));
+        attachItems(page);
+
+        String nextCursor = hasNext ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null;
+        return new OrderPageDTO(page, nextCursor, hasNext, pageSize);
+    }
+
     public Long getOrderCount() {
         return orderRepository.count();
     }
     
+    // Tamamlanmış ve gönderilmiş siparişlerin toplam tutarı; sipariş tablosu taranmaz
     public BigDecimal getTotalRevenue() {
-        // Tamamlanmış ve gönderilmiş siparişlerin toplam tutarını hesapla
-        return orderRepository.findAll().stream()
-                .filter(order -> "DELIVERED".equals(order.getStatus()) || "SHIPPED".equals(order.getStatus()))
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, (subtotal, orderAmount) -> subtotal.add(orderAmount));
+        return orderRollupService.getRevenue();
     }
     
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getRecentOrders(int count) {
-        PageRequest pageRequest = PageRequest.of(0, count, Sort.by(Sort.Direction.DESC, "orderDate"));
-        return orderRepository.findAll(pageRequest).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<OrderResponseDTO> orders = orderRepository.findRecentDTOs(PageRequest.of(0, count));
+        attachItems(orders);
+        return orders;
     }
     
+    // Durum başına sayılar tek sorguyla toplam tablosundan okunur
     public Map<String, Long> getOrderStatusCounts() {
-        Map<String, Long> statusCounts = new HashMap<>();
-        
-        for (String status : VALID_STATUSES) {
-            statusCounts.put(status, orderRepository.countByStatus(status));
+        return orderRollupService.getStatusCounts();
+    }
+
+    private OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidOrderStatusException("Geçersiz sipariş durumu: " + status);
         }
-        
-        return statusCounts;
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private long parseCursor(String cursor, long defaultValue) {
+        if (cursor == null || cursor.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Geçersiz imleç: " + cursor);
+        }
+    }
+
+    private Order buildOrder(User user, OrderCreateDTO orderCreateDTO, Map<Long, Product> products,
+                             Set<Long> flashSaleProductIds) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PENDING);
+
+        List<OrderItem> orderItems = orderCreateDTO.getOrderItems().stream()
+                .map(itemDTO -> {
+                    Product product = products.get(itemDTO.getProductId());
+                    OrderItem orderItem = new OrderItem();
+                    orderItem.setOrder(order);
+                    orderItem.setProduct(product);
+                    orderItem.setQuantity(itemDTO.getQuantity());
+                    orderItem.setPrice(product.getPrice());
+                    orderItem.setStockApplied(!flashSaleProductIds.contains(product.getId()));
+                    return orderItem;
+                })
+                .collect(Collectors.toList());
+
+        order.setOrderItems(orderItems);
+        order.setTotalAmount(calculateTotalAmount(orderItems));
+        return order;
     }
 
     private BigDecimal calculateTotalAmount(List<OrderItem> orderItems) {
@@ -174,13 +389,37 @@ public class OrderService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    // Sayfadaki tüm siparişlerin kalemleri tek IN sorgusuyla okunur
+    private void attachItems(List<OrderResponseDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        attachItems(orders, orderRepository.findItemRowsByOrderIdIn(
+                orders.stream().map(OrderResponseDTO::getId).collect(Collectors.toList())));
+    }
+
+    // Kalem satırları: [orderId, productId, quantity]
+    private void attachItems(List<OrderResponseDTO> orders, List<Object[]> itemRows) {
+        Map<Long, OrderResponseDTO> ordersById = new HashMap<>();
+        for (OrderResponseDTO order : orders) {
+            order.setOrderItems(new ArrayList<>());
+            ordersById.put(order.getId(), order);
+        }
+        for (Object[] row : itemRows) {
+            OrderResponseDTO order = ordersById.get((Long) row[0]);
+            if (order != null) {
+                order.getOrderItems().add(new OrderItemDTO((Long) row[1], (Integer) row[2]));
+            }
+        }
+    }
+
     private OrderResponseDTO convertToDTO(Order order) {
         OrderResponseDTO dto = new OrderResponseDTO();
         dto.setId(order.getId());
         dto.setUserId(order.getUser().getId());
         dto.setOrderDate(order.getOrderDate());
         dto.setTotalAmount(order.getTotalAmount());
-        dto.setStatus(order.getStatus());
+        dto.setStatus(order.getStatus().name());
         
         dto.setOrderItems(order.getOrderItems().stream()
                 .map(item -> {
@@ -0,0 +1,166 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Public ürün detayı için süre ve boyut sınırlı LRU önbellek
+@Component
+public class ProductCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+
+    // Her geçersiz kılmada entries kilidi altında artar; yükleme sırasında değişirse eski veri önbelleğe yazılmaz.
+    // Karşılaştırma ve yazma aynı kilit altında olduğundan arada gelen geçersiz kılma kaçmaz
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ProductCache(@Value("${app.product-cache.max-size:10000}") int maxSize,
+                        @Value("${app.product-cache.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("cache.gets").tag("cache", "products").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "products").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", "products").register(meterRegistry);
+        Gauge.builder("cache.size", this, ProductCache::size).tag("cache", "products").register(meterRegistry);
+    }
+
+    public ProductResponseDTO get(Long id, Function<Long, ProductResponseDTO> loader) {
+        ProductResponseDTO cached = getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = invalidations.get();
+        ProductResponseDTO loaded = loader.apply(id);
+        if (loaded != null) {
+            putIfNotInvalidated(stamp, List.of(loaded));
+        }
+        return loaded;
+    }
+
+    // Önbellekte olmayan id'ler tek çağrıda yüklenir; dönen map yalnızca bulunan ürünleri içerir
+    public Map<Long, ProductResponseDTO> getAll(Collection<Long> ids,
+                                                Function<List<Long>, Map<Long, ProductResponseDTO>> loader) {
+        Map<Long, ProductResponseDTO> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ProductResponseDTO cached = getIfPresent(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long stamp = invalidations.get();
+        Map<Long, ProductResponseDTO> loaded = loader.apply(missing);
+        putIfNotInvalidated(stamp, loaded.values());
+        result.putAll(loaded);
+        return result;
+    }
+
+    public ProductResponseDTO getIfPresent(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(id);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(ProductResponseDTO product) {
+        synchronized (entries) {
+            entries.put(product.getId(), new Entry(product, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private void putIfNotInvalidated(long stamp, Collection<ProductResponseDTO> products) {
+        synchronized (entries) {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            long expiresAt = System.nanoTime() + ttlNanos;
+            for (ProductResponseDTO product : products) {
+                entries.put(product.getId(), new Entry(product, expiresAt));
+            }
+        }
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Yazan işlem commit edildikten sonra çalışır; işlem dışında yayınlanan olaylar hemen uygulanır
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    private static final class Entry {
+        private final ProductResponseDTO value;
+        private final long expiresAt;
+
+        private Entry(ProductResponseDTO value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
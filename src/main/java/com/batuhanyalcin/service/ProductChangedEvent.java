@@ -0,0 +1,49 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+
+// Ürün verisi değiştiğinde yayınlanır; dinleyiciler işlem commit edildikten sonra çalışır
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final ProductResponseDTO product; // DELETED ve STOCK_CHANGED için null
+
+    private ProductChangedEvent(Type type, Long productId, ProductResponseDTO product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent created(ProductResponseDTO product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponseDTO product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(Type.STOCK_CHANGED, productId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ProductResponseDTO getProduct() {
+        return product;
+    }
+}
@@ -0,0 +1,56 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.exception.InvalidRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Sayfalama imleci: istemciye opak bir Base64 değeri olarak gider, son görülen satırın sıralama anahtarını taşır
+final class ProductCursor {
+
+    private final String sort;
+    private final boolean descending;
+    private final BigDecimal lastPrice;
+    private final Long lastId;
+
+    ProductCursor(String sort, boolean descending, BigDecimal lastPrice, Long lastId) {
+        this.sort = sort;
+        this.descending = descending;
+        this.lastPrice = lastPrice;
+        this.lastId = lastId;
+    }
+
+    BigDecimal getLastPrice() {
+        return lastPrice;
+    }
+
+    Long getLastId() {
+        return lastId;
+    }
+
+    String encode() {
+        String raw = sort + ":" + (descending ? "desc" : "asc") + ":" + lastId
+                + (lastPrice != null ? ":" + lastPrice.toPlainString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String cursor, String expectedSort, boolean expectedDescending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length < 3 || !parts[0].equals(expectedSort)
+                    || !parts[1].equals(expectedDescending ? "desc" : "asc")) {
+                throw new InvalidRequestException("İmleç bu sıralama ile kullanılamaz");
+            }
+            Long lastId = Long.valueOf(parts[2]);
+            BigDecimal lastPrice = parts.length > 3 ? new BigDecimal(parts[3]) : null;
+            if ("price".equals(expectedSort) && lastPrice == null) {
+                throw new InvalidRequestException("Geçersiz imleç");
+            }
+            return new ProductCursor(expectedSort, expectedDescending, lastPrice, lastId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Geçersiz imleç");
+        }
+    }
+}
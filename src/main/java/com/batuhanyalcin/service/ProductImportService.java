@@ -0,0 +1,252 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.ProductCreateDTO;
+import com.batuhanyalcin.dto.product.ProductImportResultDTO;
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.exception.InvalidRequestException;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// CSV veya NDJSON ürün dosyasını satır satır okur, bellekte yalnızca bir batch tutar
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.product-import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.product-import.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    public ProductImportResultDTO importProducts(InputStream input, Format format) throws IOException {
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        List<Product> batch = new ArrayList<>(batchSize);
+        long batchFirstLine = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+
+                result.setProcessedRows(result.getProcessedRows() + 1);
+                Product product;
+                try {
+                    ProductCreateDTO row = format == Format.CSV ? parseCsvRow(line, csvColumns) : parseJsonRow(line);
+                    validate(row);
+                    product = toProduct(row);
+                } catch (InvalidRequestException e) {
+                    reportError(result, lineNumber, e.getMessage());
+                    continue;
+                }
+
+                if (batch.isEmpty()) {
+                    batchFirstLine = lineNumber;
+                }
+                batch.add(product);
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchFirstLine, lineNumber, result);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch, batchFirstLine, lineNumber, result);
+            }
+        }
+
+        logger.info("Ürün içe aktarma tamamlandı: {} satır işlendi, {} eklendi, {} hatalı",
+                result.getProcessedRows(), result.getImportedRows(), result.getFailedRows());
+        return result;
+    }
+
+    // Her batch kendi işleminde commit edilir; hatalı batch diğerlerini geri almaz
+    private void flush(List<Product> batch, long firstLine, long lastLine, ProductImportResultDTO result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.batchInsert(batch);
+                for (Product product : batch) {
+                    eventPublisher.publishEvent(ProductChangedEvent.created(ProductResponseDTO.from(product)));
+                }
+            });
+            result.setImportedRows(result.getImportedRows() + batch.size());
+        } catch (DataAccessException e) {
+            logger.error("Ürün batch'i eklenemedi ({}-{}. satırlar): {}", firstLine, lastLine, e.getMessage());
+            result.setFailedRows(result.getFailedRows() + batch.size());
+            addError(result, firstLine, "Satır " + firstLine + "-" + lastLine + " arası eklenemedi: "
+                    + e.getMostSpecificCause().getMessage());
+        }
+        batch.clear();
+    }
+
+    private void reportError(ProductImportResultDTO result, long line, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        addError(result, line, message);
+    }
+
+    private void addError(ProductImportResultDTO result, long line, String message) {
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ProductImportResultDTO.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private void validate(ProductCreateDTO row) {
+        Set<ConstraintViolation<ProductCreateDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private ProductCreateDTO parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ProductCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Geçersiz JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> headers = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            String key = headers.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            columns.put(key, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("stockquantity")) {
+            throw new InvalidRequestException("CSV başlığında name, price ve stockQuantity kolonları olmalıdır");
+        }
+        return columns;
+    }
+
+    private ProductCreateDTO parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        ProductCreateDTO row = new ProductCreateDTO();
+        row.setName(column(values, columns, "name"));
+        row.setDescription(column(values, columns, "description"));
+        row.setImageUrl(column(values, columns, "imageurl"));
+
+        String price = column(values, columns, "price");
+        String stock = column(values, columns, "stockquantity");
+        try {
+            row.setPrice(price == null ? null : new BigDecimal(price));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Geçersiz fiyat: " + price);
+        }
+        try {
+            row.setStockQuantity(stock == null ? null : Integer.valueOf(stock));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Geçersiz stok miktarı: " + stock);
+        }
+        return row;
+    }
+
+    private String column(List<String> values, Map<String, Integer> columns, String key) {
+        Integer index = columns.get(key);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 tırnaklama kuralları; tırnak içinde satır sonu desteklenmez
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRequestException("Kapanmamış tırnak işareti");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private Product toProduct(ProductCreateDTO row) {
+        Product product = new Product();
+        product.setName(row.getName());
+        product.setDescription(row.getDescription());
+        product.setPrice(row.getPrice());
+        product.setStockQuantity(row.getStockQuantity());
+        product.setImageUrl(row.getImageUrl());
+        return product;
+    }
+}
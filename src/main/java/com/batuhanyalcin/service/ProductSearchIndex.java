@@ -0,0 +1,228 @@
+package com.batuhanyalcin.service;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Ürün adı ve açıklaması üzerinde bellek içi ters indeks
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSION = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // terim -> (ürün id -> ağırlıklı terim frekansı)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductResponseDTO> products = productRepository.findAllDTOs();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (ProductResponseDTO product : products) {
+                addDocument(product.getId(), product.getName(), product.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Arama indeksi oluşturuldu: {} ürün, {} terim", products.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index(event.getProduct());
+            case DELETED -> remove(event.getProductId());
+            default -> {
+                // Stok değişimi metni etkilemez
+            }
+        }
+    }
+
+    public void index(ProductResponseDTO product) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product.getId(), product.getName(), product.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Tüm sorgu terimlerini (tam ya da önek olarak) içeren ürünlerin id'lerini skora göre sıralı döner
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(documentTerms.size(), 1);
+            Map<Long, Float> scores = null;
+
+            for (String term : queryTerms) {
+                Map<Long, Float> termScores = new HashMap<>();
+                collect(termScores, postings.get(term), documentCount, 1.0f);
+
+                if (term.length() >= MIN_PREFIX_LENGTH) {
+                    int expanded = 0;
+                    for (Map.Entry<String, Map<Long, Float>> entry
+                            : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                        if (++expanded > MAX_PREFIX_EXPANSION) {
+                            break;
+                        }
+                        collect(termScores, entry.getValue(), documentCount, PREFIX_FACTOR);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream().limit(limit).map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Map<Long, Float> termScores, Map<Long, Float> documents, int documentCount, float factor) {
+        if (documents == null || documents.isEmpty()) {
+            return;
+        }
+        float idf = (float) Math.log(1.0 + (double) documentCount / documents.size());
+        for (Map.Entry<Long, Float> entry : documents.entrySet()) {
+            termScores.merge(entry.getKey(), entry.getValue() * idf * factor, Float::sum);
+        }
+    }
+
+    private void addDocument(Long id, String name, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(name)) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(description)) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+        }
+        documentTerms.put(id, new HashSet<>(weights.keySet()));
+    }
+
+    private void removeDocument(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Türkçe kurallarıyla küçük harfe çevirir (I -> ı, İ -> i), ardından aksanları sadeleştirir ki
+    // "ışık", "IŞIK" ve "isik" aynı terime düşsün
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(fold(c));
+            } else if (c != '\u0307' && current.length() > 0) { // Birleşik nokta işareti kelimeyi bölmez
+                terms.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            terms.add(current.toString());
+        }
+        return terms;
+    }
+
+    private static char fold(char c) {
+        return switch (c) {
+            case 'ç' -> 'c';
+            case 'ğ' -> 'g';
+            case 'ı' -> 'i';
+            case 'ö' -> 'o';
+            case 'ş' -> 's';
+            case 'ü' -> 'u';
+            case 'â' -> 'a';
+            case 'î' -> 'i';
+            case 'û' -> 'u';
+            default -> c;
+        };
+    }
+}
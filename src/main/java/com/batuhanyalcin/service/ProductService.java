@@ -1,34 +1,169 @@
 package com.batuhanyalcin.service;
 
 import com.batuhanyalcin.dto.product.ProductCreateDTO;
+import com.batuhanyalcin.dto.product.ProductLookupDTO;
+import com.batuhanyalcin.dto.product.ProductPageDTO;
 import com.batuhanyalcin.dto.product.ProductResponseDTO;
 import com.batuhanyalcin.dto.product.ProductUpdateDTO;
+import com.batuhanyalcin.exception.ConcurrentUpdateException;
+import com.batuhanyalcin.exception.InvalidRequestException;
 import com.batuhanyalcin.exception.ResourceNotFoundException;
 import com.batuhanyalcin.model.Product;
 import com.batuhanyalcin.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.batuhanyalcin.repository.ProductSpecifications.*;
+
 @Service
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_RESULTS = 50;
+    public static final int MAX_BATCH_IDS = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
     public List<ProductResponseDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDTO)
+        return productRepository.findAllDTOs();
+    }
+
+    // İmleç tabanlı sayfalama: her sayfa (price, id) / (id) indeksleri üzerinden en fazla limit + 1 satır okur.
+    // Specification sorgusu entity döndürür; salt okunur işlemde Hibernate bunlar için dirty-checking kopyası tutmaz
+    @Transactional(readOnly = true)
+    public ProductPageDTO getProductPage(String cursor, Integer limit, BigDecimal minPrice, BigDecimal maxPrice,
+                                         Boolean inStock, String sort, String direction) {
+        String sortField = sort == null ? "id" : sort;
+        if (!"id".equals(sortField) && !"price".equals(sortField)) {
+            throw new InvalidRequestException("Geçersiz sıralama alanı: " + sort);
+        }
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidRequestException("Minimum fiyat maksimum fiyattan büyük olamaz");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Product> spec = Specification.where(priceAtLeast(minPrice))
+                .and(priceAtMost(maxPrice))
+                .and(inStock(inStock));
+
+        if (cursor != null && !cursor.isBlank()) {
+            ProductCursor after = ProductCursor.decode(cursor, sortField, descending);
+            spec = spec.and("price".equals(sortField)
+                    ? priceAndIdAfter(after.getLastPrice(), after.getLastId(), descending)
+                    : idAfter(after.getLastId(), descending));
+        }
+
+        Sort.Direction sortDirection = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = "price".equals(sortField)
+                ? Sort.by(sortDirection, "price").and(Sort.by(sortDirection, "id"))
+                : Sort.by(sortDirection, "id");
+
+        List<Product> rows = productRepository.findBy(spec, query -> query.sortBy(order).limit(pageSize + 1).all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Product> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(sortField, descending,
+                    "price".equals(sortField) ? last.getPrice() : null, last.getId()).encode();
+        }
+
+        return new ProductPageDTO(
+                page.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                nextCursor,
+                hasNext,
+                pageSize);
+    }
+
+    // Sonuçlar indeksten skor sırasıyla gelir, ürün verisi önbellekten okunur
+    public List<ProductResponseDTO> searchProducts(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Arama terimi boş olamaz");
+        }
+        int resultLimit = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
+        List<ProductResponseDTO> results = new ArrayList<>();
+        for (ProductLookupDTO lookup : getProductsByIds(productSearchIndex.search(query, resultLimit))) {
+            if (lookup.isFound()) {
+                results.add(lookup.getProduct());
+            } else {
+                // İndeks henüz silme olayını işlememiş olabilir
+                productSearchIndex.remove(lookup.getId());
+            }
+        }
+        return results;
+    }
+
+    // Sonuçlar istek sırasıyla döner; önbellekte olmayanlar tek bir IN sorgusuyla okunur
+    public List<ProductLookupDTO> getProductsByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new InvalidRequestException("Tek istekte en fazla " + MAX_BATCH_IDS + " ürün istenebilir");
+        }
+        Map<Long, ProductResponseDTO> products = productCache.getAll(new LinkedHashSet<>(ids), missing ->
+                productRepository.findDTOsByIdIn(missing).stream()
+                        .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity())));
+
+        return ids.stream()
+                .map(id -> {
+                    ProductResponseDTO product = products.get(id);
+                    return new ProductLookupDTO(id, product != null, product);
+                })
                 .collect(Collectors.toList());
     }
 
     public ProductResponseDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + id));
-        return convertToDTO(product);
+        return productCache.get(id, productId -> productRepository.findDTOById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + productId)));
+    }
+
+    // Önbellekte yoksa yalnızca version ve stok kolonları okunur, entity yüklenmez
+    public Optional<String> getProductETag(Long id) {
+        ProductResponseDTO cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(productETag(id, cached.getVersion(), cached.getStockQuantity()));
+        }
+        return productRepository.findRevisionById(id)
+                .map(revision -> productETag(id, revision.getVersion(), revision.getStockQuantity()));
+    }
+
+    // Stok değişimleri version'ı artırmaz; stok ETag'e ayrıca eklenir
+    public static String productETag(Long id, Long version, Integer stockQuantity) {
+        return "\"p" + id + "-" + version + "-" + stockQuantity + "\"";
     }
 
     @Transactional
@@ -41,33 +176,70 @@ public class ProductService {
         product.setImageUrl(productCreateDTO.getImageUrl());
 
         Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        ProductResponseDTO dto = convertToDTO(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(dto));
+        return dto;
     }
     
-    @Transactional
+    // Stok version'a dahil olmadığından siparişlerin stok düşümleri fiyat ve diğer alanların güncellemesini
+    // çakıştırmaz. Stok satır kilidi altında yazılır: admin'in gördüğü stok gönderildiyse yalnızca fark eklenir,
+    // admin stoğu değiştirmediyse stoğa dokunulmaz. Başka bir admin güncellemesiyle çakışırsa yeniden denenir
     public ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + id));
-        
-        product.setName(productUpdateDTO.getName());
-        product.setDescription(productUpdateDTO.getDescription());
-        product.setPrice(productUpdateDTO.getPrice());
-        product.setStockQuantity(productUpdateDTO.getStockQuantity());
-        
-        if (productUpdateDTO.getImageUrl() != null) {
-            product.setImageUrl(productUpdateDTO.getImageUrl());
+        return optimisticRetry.execute("product.update", () -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + id));
+
+            if (productUpdateDTO.getVersion() != null && !productUpdateDTO.getVersion().equals(product.getVersion())) {
+                throw new ConcurrentUpdateException("Ürün başka bir işlem tarafından güncellendi: " + id);
+            }
+
+            // Kilit altındaki stok, commit edilmiş tüm sipariş düşümlerini içerir; entity'deki değer eski olabilir
+            Integer currentStock = productRepository.lockStock(new TreeSet<>(Set.of(id))).get(id);
+            if (currentStock == null) {
+                throw new ResourceNotFoundException("Ürün bulunamadı: " + id);
+            }
+            int newStock = targetStock(productUpdateDTO, currentStock);
+            if (newStock != currentStock) {
+                // Flash satıştaki ürünün stoğu defterdedir; satırı değiştirmek defterin bilmediği bir fazla satışa
+                // yol açar. Satışa alma aynı satır kilidini tuttuğundan kontrol kilit altında güvenlidir
+                if (flashSaleService.isActive(id)) {
+                    throw new InvalidRequestException("Flash satıştaki ürünün stoğu değiştirilemez, önce flash satıştan çıkarın: " + id);
+                }
+                productRepository.updateStock(id, newStock);
+            }
+            product.setStockQuantity(newStock);
+
+            product.setName(productUpdateDTO.getName());
+            product.setDescription(productUpdateDTO.getDescription());
+            product.setPrice(productUpdateDTO.getPrice());
+
+            if (productUpdateDTO.getImageUrl() != null) {
+                product.setImageUrl(productUpdateDTO.getImageUrl());
+            }
+
+            // Flush ile artan version DTO'ya ve ETag'e yansır
+            Product updatedProduct = productRepository.saveAndFlush(product);
+            ProductResponseDTO dto = convertToDTO(updatedProduct);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(dto));
+            return dto;
+        });
+    }
+
+    private static int targetStock(ProductUpdateDTO productUpdateDTO, int currentStock) {
+        Integer original = productUpdateDTO.getOriginalStockQuantity();
+        if (original == null) {
+            return productUpdateDTO.getStockQuantity();
         }
-        
-        Product updatedProduct = productRepository.save(product);
-        return convertToDTO(updatedProduct);
+        return Math.max(currentStock + productUpdateDTO.getStockQuantity() - original, 0);
     }
-    
+
     @Transactional
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResourceNotFoundException("Ürün bulunamadı: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     public Long getProductCount() {
@@ -75,13 +247,6 @@ public class ProductService {
     }
 
     private ProductResponseDTO convertToDTO(Product product) {
-        ProductResponseDTO dto = new ProductResponseDTO();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setStockQuantity(product.getStockQuantity());
-        dto.setImageUrl(product.getImageUrl());
-        return dto;
+        return ProductResponseDTO.from(product);
     }
-} 
\ No newline at end of file
+}
@@ -5,11 +5,15 @@ import com.batuhanyalcin.dto.auth.RegisterRequestDTO;
 import com.batuhanyalcin.dto.user.ProfileUpdateDTO;
 import com.batuhanyalcin.model.*;
 import com.batuhanyalcin.repository.*;
+import com.batuhanyalcin.security.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import com.batuhanyalcin.exception.*;
 import org.slf4j.Logger;
@@ -29,6 +33,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Transactional
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -43,16 +50,20 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
+    // Kullanıcı ve rolleri iki projeksiyon sorgusuyla okunur; entity yüklenmez
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
+        UserDTO user = userRepository.findDTOById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + id));
-        return convertToDTO(user);
+        attachRoles(List.of(user), userRepository.findRoleRowsById(id));
+        return user;
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        List<UserDTO> users = userRepository.findAllDTOs();
+        attachRoles(users, userRepository.findAllRoleRows());
+        return users;
     }
     
     public Long getUserCount() {
@@ -95,8 +106,9 @@ public class UserService {
             throw new BadCredentialsException("Mevcut şifre hatalı");
         }
         
-        // Yeni şifreyi kaydet
+        // Yeni şifreyi kaydet; eski şifreyle alınmış token'lar geçersiz olur
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenRevocationService.revokeAll(user.getId());
         userRepository.save(user);
         
         return ResponseEntity.ok("Şifre başarıyla değiştirildi");
@@ -107,10 +119,26 @@ public class UserService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId));
         
+        // İptal kaydı kullanıcı satırından ayrıdır; satır silinse de tüm düğümler token'ı ömrü boyunca reddeder
+        tokenRevocationService.revokeAll(user.getId());
         userRepository.delete(user);
         return ResponseEntity.ok("Kullanıcı başarıyla silindi");
     }
 
+    private void attachRoles(List<UserDTO> users, List<Object[]> roleRows) {
+        Map<Long, UserDTO> usersById = new HashMap<>();
+        for (UserDTO user : users) {
+            user.setRoles(new HashSet<>());
+            usersById.put(user.getId(), user);
+        }
+        for (Object[] row : roleRows) {
+            UserDTO user = usersById.get((Long) row[0]);
+            if (user != null) {
+                user.getRoles().add((String) row[1]);
+            }
+        }
+    }
+
     private UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
@@ -136,6 +164,9 @@ public class UserService {
             User savedUser = userRepository.save(user);
             
             return ResponseEntity.ok("Kullanıcı başarıyla kaydedildi");
+        } catch (ServiceUnavailableException e) {
+            // Hash havuzu doluysa 503 olarak döner; istemci tekrar deneyebilir
+            throw e;
         } catch (Exception e) {
             logger.error("Kullanıcı kaydı sırasında hata: ", e);
             return ResponseEntity
@@ -0,0 +1,140 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.exception.ServiceUnavailableException;
+import com.batuhanyalcin.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    private BoundedPasswordEncoder encoder(int strength, int threads, int queueCapacity, Duration maxWait) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder();
+        ReflectionTestUtils.setField(encoder, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(encoder, "strength", strength);
+        ReflectionTestUtils.setField(encoder, "threads", threads);
+        ReflectionTestUtils.setField(encoder, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(encoder, "maxWait", maxWait);
+        ReflectionTestUtils.invokeMethod(encoder, "init");
+        return encoder;
+    }
+
+    // Havuzdaki tüm iş parçacıklarını ve kuyruğu serbest bırakılana kadar meşgul eder.
+    // Önce her iş parçacığının bir görevde beklediği görülür, sonra kuyruk doldurulur; aksi halde boşta kalan
+    // bir iş parçacığı kuyruktan görev alıp yer açabilirdi
+    private void saturate(BoundedPasswordEncoder encoder) throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        int threads = executor.getMaximumPoolSize();
+        CountDownLatch running = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                running.countDown();
+                awaitRelease();
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        int queueCapacity = executor.getQueue().remainingCapacity();
+        for (int i = 0; i < queueCapacity; i++) {
+            executor.execute(this::awaitRelease);
+        }
+        assertEquals(0, executor.getQueue().remainingCapacity());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double rejected(String operation, String reason) {
+        return meterRegistry.counter("password.hash.rejected", "operation", operation, "reason", reason).count();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ReflectionTestUtils.invokeMethod(encoder, "shutdown");
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPoolAndRecordLatency() {
+        encoder = encoder(4, 1, 4, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("sifre123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("sifre123", hash));
+        assertFalse(encoder.matches("yanlis", hash));
+        assertEquals(1, meterRegistry.timer("password.hash.duration", "operation", "encode").count());
+        assertEquals(2, meterRegistry.timer("password.hash.duration", "operation", "matches").count());
+    }
+
+    // Kuyruk doluyken istek beklemeden 503 alır
+    @Test
+    void matches_WhenQueueFull_RejectsImmediately() throws InterruptedException {
+        encoder = encoder(4, 1, 1, Duration.ofSeconds(5));
+        String hash = encoder.encode("sifre123");
+        saturate(encoder);
+
+        long started = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> encoder.matches("sifre123", hash));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1000);
+        assertEquals(1, rejected("matches", "queue-full"));
+    }
+
+    // İş parçacığı meşgulken bekleme süresi aşılırsa istek 503 alır
+    @Test
+    void encode_WhenWaitExceeded_TimesOut() {
+        encoder = encoder(4, 1, 2, Duration.ofMillis(100));
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("sifre123"));
+
+        assertEquals(1, rejected("encode", "timeout"));
+    }
+
+    // Eski maliyetle üretilmiş hash'ler doğrulanmaya devam eder
+    @Test
+    void matches_AcceptsHashesWithDifferentCost() {
+        encoder = encoder(5, 1, 4, Duration.ofSeconds(5));
+        String legacyHash = new BCryptPasswordEncoder(4).encode("sifre123");
+
+        assertTrue(encoder.matches("sifre123", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void calibrate_StaysWithinBounds() {
+        encoder = encoder(4, 1, 1, Duration.ofSeconds(5));
+
+        ReflectionTestUtils.setField(encoder, "targetDuration", Duration.ofMillis(1));
+        assertEquals(10, (int) ReflectionTestUtils.invokeMethod(encoder, "calibrate"));
+
+        ReflectionTestUtils.setField(encoder, "targetDuration", Duration.ofHours(1));
+        assertEquals(14, (int) ReflectionTestUtils.invokeMethod(encoder, "calibrate"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.CatalogSnapshotService;
+import com.batuhanyalcin.service.CatalogVersion;
+import com.batuhanyalcin.service.ProductChangedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.invokeMethod(catalogSnapshotService, "init");
+        lenient().when(productRepository.findCatalogFingerprint()).thenReturn(fingerprint(1L, 1L));
+    }
+
+    private ProductRepository.CatalogFingerprint fingerprint(long productCount, long stockSum) {
+        return new ProductRepository.CatalogFingerprint() {
+            @Override
+            public Long getProductCount() {
+                return productCount;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return productCount;
+            }
+
+            @Override
+            public Long getVersionSum() {
+                return 0L;
+            }
+
+            @Override
+            public Long getStockSum() {
+                return stockSum;
+            }
+        };
+    }
+
+    private ProductResponseDTO product(Long id, String name) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1);
+        product.setVersion(0L);
+        return product;
+    }
+
+    @Test
+    void getSnapshot_SerializesCatalogOnceAndReusesBytes() throws Exception {
+        when(productRepository.streamAllDTOs()).thenReturn(Stream.of(product(1L, "Kalem"), product(2L, "Defter")));
+
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        JsonNode json = objectMapper.readTree(snapshot.getJson());
+        assertEquals(2, json.size());
+        assertEquals("Defter", json.get(1).get("name").asText());
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip())).readAllBytes();
+        assertArrayEquals(snapshot.getJson(), unzipped);
+        assertTrue(snapshot.getEtag().matches("\"c[0-9a-f]{32}\""));
+
+        assertSame(snapshot, catalogSnapshotService.getSnapshot());
+        verify(productRepository, times(1)).streamAllDTOs();
+    }
+
+    @Test
+    void rebuild_ChangesEtagWhenCatalogChanges() {
+        when(productRepository.streamAllDTOs()).thenReturn(Stream.of(product(1L, "Kalem"))).thenReturn(Stream.empty());
+        String before = catalogSnapshotService.getSnapshot().getEtag();
+
+        catalogVersion.onProductChanged(ProductChangedEvent.deleted(1L));
+        catalogSnapshotService.rebuild();
+
+        CatalogSnapshotService.Snapshot after = catalogSnapshotService.getSnapshot();
+        assertNotEquals(before, after.getEtag());
+        assertEquals(0, after.getProductCount());
+    }
+
+    // Eski sürümden okuyan oluşturma, arada tamamlanan yeni görüntünün yerine geçmemeli
+    @Test
+    void rebuild_KeepsNewerSnapshotWhenBuildsOverlap() {
+        AtomicInteger reads = new AtomicInteger();
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() > 1) {
+                return Stream.of(product(1L, "Kalem"), product(2L, "Defter"));
+            }
+            // Bu okuma sürerken bir ürün eklenir ve başka bir oluşturma önce tamamlanır
+            catalogVersion.onProductChanged(ProductChangedEvent.created(product(2L, "Defter")));
+            catalogSnapshotService.rebuild();
+            return Stream.of(product(1L, "Kalem"));
+        });
+
+        catalogSnapshotService.rebuild();
+
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getSnapshot();
+        assertEquals(2, snapshot.getProductCount());
+    }
+
+    // Stok değişimleri tam taramayı hemen tetiklemez; yavaş aralıkta tek bir yeniden oluşturmada toplanır
+    @Test
+    void onProductChanged_DefersStockChangesToRefreshInterval() throws Exception {
+        ReflectionTestUtils.setField(catalogSnapshotService, "debounce", Duration.ZERO);
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> Stream.of(product(1L, "Kalem")));
+        catalogSnapshotService.getSnapshot();
+
+        for (int i = 0; i < 10; i++) {
+            catalogVersion.onProductChanged(ProductChangedEvent.stockChanged(1L));
+            catalogSnapshotService.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        }
+        Thread.sleep(100);
+        verify(productRepository, times(1)).streamAllDTOs();
+
+        catalogSnapshotService.refresh();
+        verify(productRepository, timeout(2000).times(2)).streamAllDTOs();
+        catalogSnapshotService.refresh();
+        Thread.sleep(100);
+        verify(productRepository, times(2)).streamAllDTOs();
+    }
+
+    // ETag düğüm içi sayaca değil içeriğe bağlıdır; aynı katalogu sunan düğümler aynı ETag'i verir
+    @Test
+    void rebuild_KeepsEtagWhenContentIsUnchanged() {
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> Stream.of(product(1L, "Kalem")));
+        CatalogSnapshotService.Snapshot before = catalogSnapshotService.getSnapshot();
+
+        catalogVersion.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        catalogSnapshotService.rebuild();
+
+        CatalogSnapshotService.Snapshot after = catalogSnapshotService.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(before.getEtag(), after.getEtag());
+    }
+
+    // Başka düğümdeki sipariş yerel olay üretmez; veritabanı özetindeki değişiklikten fark edilir
+    @Test
+    void refresh_RebuildsWhenAnotherNodeChangedCatalog() {
+        ReflectionTestUtils.setField(catalogSnapshotService, "debounce", Duration.ZERO);
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> Stream.of(product(1L, "Kalem")));
+        CatalogSnapshotService.Snapshot before = catalogSnapshotService.getSnapshot();
+
+        when(productRepository.findCatalogFingerprint()).thenReturn(fingerprint(1L, 0L));
+        catalogSnapshotService.refresh();
+
+        verify(productRepository, timeout(2000).times(2)).streamAllDTOs();
+        verify(catalogVersion).advance();
+        assertTrue(catalogSnapshotService.getSnapshot().getVersion() > before.getVersion());
+    }
+
+    @Test
+    void refresh_RebuildsSnapshotOlderThanMaxAge() {
+        ReflectionTestUtils.setField(catalogSnapshotService, "debounce", Duration.ZERO);
+        ReflectionTestUtils.setField(catalogSnapshotService, "maxAge", Duration.ZERO);
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> Stream.of(product(1L, "Kalem")));
+        catalogSnapshotService.getSnapshot();
+
+        catalogSnapshotService.refresh();
+
+        verify(productRepository, timeout(2000).times(2)).streamAllDTOs();
+    }
+
+    @Test
+    void onProductChanged_RebuildsAfterProductUpdate() {
+        ReflectionTestUtils.setField(catalogSnapshotService, "debounce", Duration.ZERO);
+        when(productRepository.streamAllDTOs()).thenAnswer(invocation -> Stream.of(product(1L, "Kalem")));
+        catalogSnapshotService.getSnapshot();
+
+        catalogVersion.onProductChanged(ProductChangedEvent.updated(product(1L, "Kurşun Kalem")));
+        catalogSnapshotService.onProductChanged(ProductChangedEvent.updated(product(1L, "Kurşun Kalem")));
+
+        verify(productRepository, timeout(2000).times(2)).streamAllDTOs();
+    }
+}
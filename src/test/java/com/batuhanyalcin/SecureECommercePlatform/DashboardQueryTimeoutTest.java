@@ -0,0 +1,74 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.service.DashboardSnapshotService;
+import com.batuhanyalcin.service.OrderService;
+import com.batuhanyalcin.service.ProductService;
+import com.batuhanyalcin.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+// Zaman aşımına uğrayan bölümün sorgusu veritabanında da iptal edilmeli, arka planda çalışmaya devam etmemeli
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "app.dashboard.query-timeout=1s"})
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import(DashboardSnapshotService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DashboardQueryTimeoutTest {
+
+    // Çapraz birleşim 10^10 satır üretir; iptal edilmezse dakikalarca sürer
+    private static final String SLOW_SQL =
+            "SELECT SUM(a.X * b.X) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void build_CancelsTimedOutStatement() throws Exception {
+        CompletableFuture<Throwable> slowQuery = new CompletableFuture<>();
+        when(userService.getUserCount()).thenAnswer(invocation -> {
+            try {
+                return jdbcTemplate.queryForObject(SLOW_SQL, Long.class);
+            } catch (RuntimeException e) {
+                slowQuery.complete(e);
+                throw e;
+            }
+        });
+        when(orderService.getOrderCount()).thenReturn(3L);
+        when(productService.getProductCount()).thenReturn(7L);
+        when(orderService.getRecentOrders(5)).thenReturn(List.of());
+        when(orderService.getOrderStatusCounts()).thenReturn(Map.of());
+
+        DashboardSnapshotService.Snapshot snapshot = dashboardSnapshotService.getSnapshot();
+
+        assertEquals(List.of("totalUsers"), snapshot.getStats().get("partialSections"));
+        assertEquals(7L, snapshot.getStats().get("totalProducts"));
+        assertInstanceOf(QueryTimeoutException.class, slowQuery.get(5, TimeUnit.SECONDS));
+    }
+}
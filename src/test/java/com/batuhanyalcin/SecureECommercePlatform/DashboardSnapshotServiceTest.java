@@ -0,0 +1,158 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.service.DashboardSnapshotService;
+import com.batuhanyalcin.service.OrderService;
+import com.batuhanyalcin.service.ProductService;
+import com.batuhanyalcin.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardSnapshotServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.invokeMethod(dashboardSnapshotService, "init");
+        lenient().when(orderService.getOrderCount()).thenReturn(3L);
+        lenient().when(productService.getProductCount()).thenReturn(7L);
+        lenient().when(orderService.getTotalRevenue()).thenReturn(new BigDecimal("150.00"));
+        lenient().when(orderService.getRecentOrders(5)).thenReturn(List.of());
+        lenient().when(orderService.getOrderStatusCounts()).thenReturn(Map.of("PENDING", 3L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(dashboardSnapshotService, "shutdown");
+    }
+
+    @Test
+    void getSnapshot_BuildsOnceAndServesFromMemory() {
+        when(userService.getUserCount()).thenReturn(2L);
+
+        DashboardSnapshotService.Snapshot first = dashboardSnapshotService.getSnapshot();
+        DashboardSnapshotService.Snapshot second = dashboardSnapshotService.getSnapshot();
+
+        assertSame(first, second);
+        assertEquals(2L, first.getStats().get("totalUsers"));
+        assertEquals(new BigDecimal("150.00"), first.getStats().get("revenue"));
+        verify(userService, times(1)).getUserCount();
+    }
+
+    // Eski görüntü beklemeden döner; eşzamanlı okumalar tek bir arka plan yenilemesi tetikler
+    @Test
+    void getSnapshot_ServesStaleWhileSingleRefreshRuns() throws Exception {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch finishRefresh = new CountDownLatch(1);
+        when(userService.getUserCount()).thenReturn(2L).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            finishRefresh.await(5, TimeUnit.SECONDS);
+            return 4L;
+        });
+        DashboardSnapshotService.Snapshot stale = dashboardSnapshotService.getSnapshot();
+        ReflectionTestUtils.setField(dashboardSnapshotService, "maxAge", Duration.ZERO);
+        Thread.sleep(5);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(stale, dashboardSnapshotService.getSnapshot());
+        }
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        finishRefresh.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        DashboardSnapshotService.Snapshot fresh = stale;
+        while (fresh == stale && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            ReflectionTestUtils.setField(dashboardSnapshotService, "maxAge", Duration.ofHours(1));
+            fresh = dashboardSnapshotService.getSnapshot();
+        }
+        assertEquals(4L, fresh.getStats().get("totalUsers"));
+        verify(userService, times(2)).getUserCount();
+    }
+
+    // Bölümler paralel çalışır; toplam süre en yavaş bölüme yakındır, sıralı toplam değil
+    @Test
+    void build_RunsSectionsConcurrently() {
+        Answer<Object> slow = invocation -> {
+            Thread.sleep(300);
+            return 1L;
+        };
+        when(userService.getUserCount()).thenAnswer(slow);
+        when(orderService.getOrderCount()).thenAnswer(slow);
+        when(productService.getProductCount()).thenAnswer(slow);
+        when(orderService.getTotalRevenue()).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return BigDecimal.TEN;
+        });
+
+        long started = System.nanoTime();
+        DashboardSnapshotService.Snapshot snapshot = dashboardSnapshotService.getSnapshot();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(elapsedMillis < 900, "Panel sıralı oluşturuldu: " + elapsedMillis + " ms");
+        assertEquals(1L, snapshot.getStats().get("totalProducts"));
+        assertFalse(snapshot.getStats().containsKey("partialSections"));
+    }
+
+    // Zaman aşımına uğrayan ve hata veren bölümler önceki değerle gelir, diğerleri günceldir
+    @Test
+    void build_ReturnsPartialResultsWhenSectionsFail() throws Exception {
+        ReflectionTestUtils.setField(dashboardSnapshotService, "queryTimeout", Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.getUserCount()).thenReturn(2L).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 9L;
+        });
+        when(productService.getProductCount()).thenReturn(7L).thenThrow(new IllegalStateException("bağlantı yok"));
+        when(orderService.getOrderCount()).thenReturn(3L, 4L);
+        dashboardSnapshotService.getSnapshot();
+
+        ReflectionTestUtils.setField(dashboardSnapshotService, "maxAge", Duration.ZERO);
+        DashboardSnapshotService.Snapshot stale = dashboardSnapshotService.getSnapshot();
+        DashboardSnapshotService.Snapshot refreshed = stale;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (refreshed == stale && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            ReflectionTestUtils.setField(dashboardSnapshotService, "maxAge", Duration.ofHours(1));
+            refreshed = dashboardSnapshotService.getSnapshot();
+        }
+        release.countDown();
+
+        assertEquals(4L, refreshed.getStats().get("totalOrders"));
+        assertEquals(2L, refreshed.getStats().get("totalUsers"));
+        assertEquals(7L, refreshed.getStats().get("totalProducts"));
+        assertEquals(List.of("totalUsers", "totalProducts"), refreshed.getStats().get("partialSections"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ExportService exportService;
+
+    private Order order(Long id, User user) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setOrderDate(LocalDateTime.of(2025, 1, 1, 12, 0));
+        return order;
+    }
+
+    @Test
+    void exportProducts_WritesOneLinePerProduct() throws Exception {
+        ProductResponseDTO first = new ProductResponseDTO();
+        first.setId(1L);
+        first.setName("Kalem");
+        ProductResponseDTO second = new ProductResponseDTO();
+        second.setId(2L);
+        second.setName("Defter");
+        when(productRepository.streamAllDTOs()).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportProducts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Defter", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void exportOrders_MergesItemRowsIntoTheirOrders() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        when(orderRepository.streamAll()).thenReturn(Stream.of(order(1L, user), order(2L, user), order(3L, user)));
+        when(orderRepository.streamAllItemRows()).thenReturn(Stream.of(
+                new Object[]{1L, 10L, 1},
+                new Object[]{1L, 11L, 2},
+                new Object[]{3L, 12L, 5}));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOrders(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2, first.get("orderItems").size());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("orderItems").size());
+        JsonNode third = objectMapper.readTree(lines[2]);
+        assertEquals(12L, third.get("orderItems").get(0).get("productId").asLong());
+        assertEquals(7L, third.get("userId").asLong());
+    }
+}
@@ -0,0 +1,113 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.model.OrderItem;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Kurtarma yolu: uygulanmamış flash kalemleri tam bir kez stoğa yazılır
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+public class FlashSaleFlushTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void applyPendingStock_AppliesEachUnappliedItemOnce() {
+        Product product = product(10);
+        saveOrder(product, 3, 2);
+        entityManager.clear();
+
+        assertEquals(Map.of(product.getId(), 5), productRepository.applyPendingStock());
+        assertTrue(productRepository.applyPendingStock().isEmpty());
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(5, reloaded.getStockQuantity());
+        assertEquals(0L, reloaded.getVersion());
+    }
+
+    // Kalemler stoktan fazlaysa stok eksiye düşürülmez, kalemler uygulanmamış kalır
+    @Test
+    void applyPendingStock_FailsInsteadOfGoingNegative() {
+        Product product = product(4);
+        saveOrder(product, 3, 2);
+        entityManager.clear();
+
+        InvalidDataAccessApiUsageException failure =
+                assertThrows(InvalidDataAccessApiUsageException.class, () -> productRepository.applyPendingStock());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(4, reloaded.getStockQuantity());
+    }
+
+    private Product product(int stock) {
+        Product product = new Product();
+        product.setName("Sınırlı Ürün");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        productRepository.batchInsert(List.of(product));
+        return product;
+    }
+
+    // Verilen uygulanmamış kalemlere ek olarak stoğa önceden yazılmış 1 adetlik bir kalem içerir
+    private void saveOrder(Product product, int... pendingQuantities) {
+        User user = new User();
+        user.setUsername("alici");
+        user.setEmail("alici@test.com");
+        user.setPassword("x");
+        userRepository.save(user);
+
+        Order order = new Order();
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("60.00"));
+        Product reference = productRepository.getReferenceById(product.getId());
+        List<OrderItem> items = new ArrayList<>();
+        for (int quantity : pendingQuantities) {
+            items.add(item(order, reference, quantity, false));
+        }
+        items.add(item(order, reference, 1, true));
+        order.setOrderItems(items);
+        orderRepository.saveAndFlush(order);
+    }
+
+    private OrderItem item(Order order, Product product, int quantity, boolean stockApplied) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(new BigDecimal("10.00"));
+        item.setStockApplied(stockApplied);
+        return item;
+    }
+}
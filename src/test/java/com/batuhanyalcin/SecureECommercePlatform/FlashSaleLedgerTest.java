@@ -0,0 +1,130 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.service.FlashSaleLedger;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlashSaleLedgerTest {
+
+    @Test
+    void tryReserve_IsAllOrNothing() {
+        FlashSaleLedger ledger = new FlashSaleLedger();
+        ledger.activate(1L, 5);
+        ledger.activate(2L, 1);
+
+        Optional<FlashSaleLedger.Reservation> rejected = ledger.tryReserve(new TreeMap<>(Map.of(1L, 3, 2L, 2)));
+
+        assertTrue(rejected.isEmpty());
+        assertEquals(5, ledger.available(1L));
+        assertEquals(1, ledger.available(2L));
+
+        FlashSaleLedger.Reservation reservation = ledger.tryReserve(new TreeMap<>(Map.of(1L, 3, 2L, 1))).orElseThrow();
+        assertEquals(2, ledger.available(1L));
+        assertEquals(0, ledger.available(2L));
+
+        reservation.release();
+        reservation.release();
+        assertEquals(5, ledger.available(1L));
+        assertEquals(1, ledger.available(2L));
+    }
+
+    @Test
+    void tryReserve_RejectsProductsNotOnFlashSale() {
+        FlashSaleLedger ledger = new FlashSaleLedger();
+        ledger.activate(1L, 5);
+
+        assertTrue(ledger.tryReserve(new TreeMap<>(Map.of(1L, 1, 9L, 1))).isEmpty());
+        assertEquals(5, ledger.available(1L));
+    }
+
+    // Satıştan çıkarılan ürün yeni ayırma kabul etmez; işlemi süren ayırma bitene kadar boşaltma tamamlanmaz
+    @Test
+    void awaitDrained_WaitsForInFlightReservations() throws Exception {
+        FlashSaleLedger ledger = new FlashSaleLedger();
+        ledger.activate(1L, 5);
+        FlashSaleLedger.Reservation reservation = ledger.tryReserve(new TreeMap<>(Map.of(1L, 2))).orElseThrow();
+
+        ledger.startDraining(1L);
+
+        assertTrue(ledger.isActive(1L));
+        assertTrue(ledger.tryReserve(new TreeMap<>(Map.of(1L, 1))).isEmpty());
+        assertFalse(ledger.awaitDrained(1L, Duration.ofMillis(20)));
+
+        reservation.complete();
+        assertTrue(ledger.awaitDrained(1L, Duration.ofMillis(20)));
+
+        ledger.deactivate(1L);
+        assertFalse(ledger.isActive(1L));
+    }
+
+    // Çok ürünlü sepetler, rastgele geri alınan işlemler: satılan miktar hiçbir üründe stoğu aşmamalı
+    @Test
+    void concurrentReservations_NeverOversell() throws Exception {
+        int products = 3;
+        int stock = 500;
+        int threads = 16;
+        int attemptsPerThread = 20_000;
+        FlashSaleLedger ledger = new FlashSaleLedger();
+        for (long id = 1; id <= products; id++) {
+            ledger.activate(id, stock);
+        }
+
+        AtomicIntegerArray sold = new AtomicIntegerArray(products + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        TreeMap<Long, Integer> basket = new TreeMap<>();
+                        basket.put(1L + random.nextInt(products), 1 + random.nextInt(3));
+                        if (random.nextBoolean()) {
+                            basket.merge(1L + random.nextInt(products), 1, Integer::sum);
+                        }
+                        Optional<FlashSaleLedger.Reservation> reservation = ledger.tryReserve(basket);
+                        if (reservation.isEmpty()) {
+                            continue;
+                        }
+                        if (random.nextInt(5) == 0) {
+                            reservation.get().release(); // Sipariş işlemi geri alındı
+                        } else {
+                            basket.forEach((id, quantity) -> sold.addAndGet(id.intValue(), quantity));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int id = 1; id <= products; id++) {
+            int available = ledger.available((long) id);
+            assertTrue(available >= 0);
+            assertTrue(sold.get(id) <= stock);
+            assertEquals(stock, sold.get(id) + available, "Ürün " + id + " için defter tutarsız");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.exception.InvalidRequestException;
+import com.batuhanyalcin.model.FlashSaleProduct;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.FlashSaleProductRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.FlashSaleLedger;
+import com.batuhanyalcin.service.FlashSaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Defter düğüm belleğinde olduğundan flash satış yalnızca açıkça tek düğüm olarak yapılandırılınca çalışır
+@ExtendWith(MockitoExtension.class)
+public class FlashSaleServiceTest {
+
+    @Spy
+    private FlashSaleLedger ledger = new FlashSaleLedger();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private FlashSaleProductRepository flashSaleProductRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FlashSaleService flashSaleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.invokeMethod(flashSaleService, "init");
+    }
+
+    private Product product() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Sınırlı Ürün");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(5);
+        return product;
+    }
+
+    @Test
+    void enroll_RejectedUnlessSingleNode() {
+        assertThrows(InvalidRequestException.class, () -> flashSaleService.enroll(1L));
+
+        verifyNoInteractions(flashSaleProductRepository);
+        assertFalse(flashSaleService.isActive(1L));
+    }
+
+    @Test
+    void enroll_ActivatesLedgerOnSingleNode() {
+        ReflectionTestUtils.setField(flashSaleService, "singleNode", true);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product()));
+
+        assertEquals(5, flashSaleService.enroll(1L).getAvailableStock());
+        assertTrue(flashSaleService.isActive(1L));
+    }
+
+    // Çok düğümlü kurulumda kayıtlı ürünler için defter kurulmaz; ürünler SQL yolundan satılır
+    @Test
+    void startup_IgnoresEnrollmentsUnlessSingleNode() {
+        when(flashSaleProductRepository.findAll()).thenReturn(List.of(new FlashSaleProduct(1L, LocalDateTime.now())));
+
+        flashSaleService.afterSingletonsInstantiated();
+
+        assertFalse(flashSaleService.isActive(1L));
+        verify(productRepository, never()).findById(any());
+    }
+}
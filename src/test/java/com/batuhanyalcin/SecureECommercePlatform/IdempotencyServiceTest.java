@@ -0,0 +1,131 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.exception.IdempotencyKeyReuseException;
+import com.batuhanyalcin.model.IdempotencyRecord;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.repository.IdempotencyRecordRepository;
+import com.batuhanyalcin.service.IdempotencyService;
+import com.batuhanyalcin.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private OrderCreateDTO request;
+    private OrderResponseDTO response;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.invokeMethod(idempotencyService, "init");
+
+        request = new OrderCreateDTO();
+        request.setOrderItems(List.of(new OrderItemDTO(1L, 2)));
+
+        response = new OrderResponseDTO(42L, 1L, new BigDecimal("200.00"), LocalDateTime.now(), OrderStatus.PENDING);
+        response.setOrderItems(List.of(new OrderItemDTO(1L, 2)));
+    }
+
+    private IdempotencyRecord storedRecord(String requestHash) throws Exception {
+        return new IdempotencyRecord(5L, 1L, "key-1", requestHash, 42L, objectMapper.writeValueAsString(response),
+                LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void createOrder_RetryIsServedFromMemoryWithoutCreatingAnotherOrder() {
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.empty());
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(i -> i.getArgument(0));
+        when(orderService.createOrder(1L, request)).thenReturn(response);
+
+        OrderResponseDTO first = idempotencyService.createOrder(1L, "key-1", request);
+        OrderResponseDTO retry = idempotencyService.createOrder(1L, "key-1", request);
+
+        assertEquals(42L, first.getId());
+        assertEquals(first, retry);
+        verify(orderService, times(1)).createOrder(1L, request);
+        verify(recordRepository, times(1)).findByUserIdAndIdempotencyKey(1L, "key-1");
+    }
+
+    @Test
+    void createOrder_ReplaysStoredResponseFromDatabase() throws Exception {
+        IdempotencyRecord record = storedRecord(requestHash(request));
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(record));
+
+        OrderResponseDTO replayed = idempotencyService.createOrder(1L, "key-1", request);
+
+        assertEquals(42L, replayed.getId());
+        assertEquals(response.getOrderDate(), replayed.getOrderDate());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrder_RejectsKeyReusedWithDifferentBody() {
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.empty());
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(i -> i.getArgument(0));
+        when(orderService.createOrder(1L, request)).thenReturn(response);
+        idempotencyService.createOrder(1L, "key-1", request);
+
+        OrderCreateDTO changed = new OrderCreateDTO();
+        changed.setOrderItems(List.of(new OrderItemDTO(1L, 3)));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> idempotencyService.createOrder(1L, "key-1", changed));
+        verify(orderService, never()).createOrder(1L, changed);
+    }
+
+    @Test
+    void createOrder_ConcurrentDuplicateReplaysTheWinningResponse() throws Exception {
+        IdempotencyRecord winner = storedRecord(requestHash(request));
+        when(recordRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+
+        OrderResponseDTO replayed = idempotencyService.createOrder(1L, "key-1", request);
+
+        assertEquals(42L, replayed.getId());
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    private String requestHash(OrderCreateDTO body) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body)));
+    }
+}
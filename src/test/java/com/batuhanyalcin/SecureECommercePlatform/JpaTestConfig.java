@@ -0,0 +1,12 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// @DataJpaTest için yalnızca entity ve repository paketlerini yükleyen yapılandırma
+@Configuration
+@EntityScan("com.batuhanyalcin.model")
+@EnableJpaRepositories("com.batuhanyalcin.repository")
+public class JpaTestConfig {
+}
@@ -0,0 +1,98 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.security.JwtAuthenticationFilter;
+import com.batuhanyalcin.security.JwtKeyRing;
+import com.batuhanyalcin.security.JwtProperties;
+import com.batuhanyalcin.security.JwtUtils;
+import com.batuhanyalcin.security.TokenRevocationService;
+import com.batuhanyalcin.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Filtre kimliği yalnızca token claim'lerinden kurar; kullanıcı deposu hiç çağrılmaz
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-0123456789-0123456789-0123456789-0123456789-0123456789";
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", new JwtKeyRing(new JwtProperties(), SECRET));
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String token() {
+        UserPrincipal principal = new UserPrincipal(42L, "admin", "admin@example.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    @Test
+    void doFilter_BuildsPrincipalFromClaims() throws Exception {
+        Authentication authentication = authenticate(token());
+
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertEquals("admin", principal.getUsername());
+        assertNull(principal.getPassword());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+        verify(tokenRevocationService).isRevoked(eq(42L), any());
+    }
+
+    @Test
+    void doFilter_IgnoresRevokedToken() throws Exception {
+        when(tokenRevocationService.isRevoked(eq(42L), any())).thenReturn(true);
+
+        assertNull(authenticate(token()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.security.JwtKeyRing;
+import com.batuhanyalcin.security.JwtProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.AbstractEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Anahtarlar yapılandırmadan okunur; aynı yapılandırmayla açılan düğümler birbirinin token'ını doğrular
+public class JwtKeyRingTest {
+
+    private static JwtProperties.KeyDefinition hmac(String id, String secret) {
+        JwtProperties.KeyDefinition key = new JwtProperties.KeyDefinition();
+        key.setId(id);
+        key.setSecret(Base64.getEncoder().encodeToString(secret.repeat(8).getBytes(StandardCharsets.UTF_8)));
+        return key;
+    }
+
+    private static JwtKeyRing ring(String activeKeyId, JwtProperties.KeyDefinition... keys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(List.of(keys));
+        return new JwtKeyRing(properties, "");
+    }
+
+    private static String sign(JwtKeyRing ring, String subject) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId())
+                .setSubject(subject)
+                .signWith(ring.getSigningKey(), ring.getAlgorithm())
+                .compact();
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der) + "\n-----END " + type + "-----";
+    }
+
+    // Rotasyon: yeni anahtar aktifken eski anahtarla imzalanmış token kabul edilir, eski anahtar çıkınca reddedilir
+    @Test
+    void rotation_AcceptsPreviousKeyUntilRemoved() {
+        JwtKeyRing before = ring("k1", hmac("k1", "eski-anahtar"));
+        JwtKeyRing during = ring("k2", hmac("k1", "eski-anahtar"), hmac("k2", "yeni-anahtar"));
+        JwtKeyRing after = ring("k2", hmac("k2", "yeni-anahtar"));
+
+        String oldToken = sign(before, "musteri");
+        String newToken = sign(during, "musteri");
+
+        assertEquals("musteri", during.parser().parseClaimsJws(oldToken).getBody().getSubject());
+        assertEquals("musteri", after.parser().parseClaimsJws(newToken).getBody().getSubject());
+        assertThrows(SecurityException.class, () -> after.parser().parseClaimsJws(oldToken));
+    }
+
+    // Yalnızca açık anahtarı olan düğüm doğrular ama imzalayamaz
+    @Test
+    void rs256_VerificationOnlyNodeVerifiesWithPublicKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+
+        JwtProperties.KeyDefinition signerKey = new JwtProperties.KeyDefinition();
+        signerKey.setId("rsa-1");
+        signerKey.setPrivateKey(pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        JwtProperties.KeyDefinition verifierKey = new JwtProperties.KeyDefinition();
+        verifierKey.setId("rsa-1");
+        verifierKey.setPublicKey(pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+
+        JwtProperties signerProperties = new JwtProperties();
+        signerProperties.setAlgorithm(SignatureAlgorithm.RS256);
+        signerProperties.setKeys(List.of(signerKey));
+        JwtProperties verifierProperties = new JwtProperties();
+        verifierProperties.setAlgorithm(SignatureAlgorithm.RS256);
+        verifierProperties.setKeys(List.of(verifierKey));
+        JwtKeyRing signer = new JwtKeyRing(signerProperties, "");
+        JwtKeyRing verifier = new JwtKeyRing(verifierProperties, "");
+
+        String token = sign(signer, "kenar");
+
+        assertEquals("kenar", verifier.parser().parseClaimsJws(token).getBody().getSubject());
+        assertFalse(verifier.canSign());
+        assertThrows(IllegalStateException.class, verifier::getSigningKey);
+    }
+
+    // Başlıktaki algoritma yapılandırılandan farklıysa anahtar aranmaz
+    @Test
+    void parser_RejectsUnexpectedAlgorithmAndUnknownKeyId() {
+        JwtKeyRing ring = ring("k1", hmac("k1", "imza-anahtari"));
+        String hs256 = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "k1")
+                .setSubject("saldirgan")
+                .signWith(Keys.hmacShaKeyFor("imza-anahtari".repeat(8).getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS256)
+                .compact();
+        String unknownKid = sign(ring("k9", hmac("k9", "imza-anahtari")), "saldirgan");
+
+        assertThrows(SecurityException.class, () -> ring.parser().parseClaimsJws(hs256));
+        assertThrows(SecurityException.class, () -> ring.parser().parseClaimsJws(unknownKid));
+    }
+
+    // Depodaki yapılandırma tek başına anahtar sağlamaz; JWT_SECRET ya da app.jwt.keys verilmeden uygulama açılmaz
+    @Test
+    void constructor_FailsWithShippedDefaultConfiguration() throws Exception {
+        AbstractEnvironment environment = new AbstractEnvironment() { };
+        environment.getPropertySources().addFirst(new ResourcePropertySource("classpath:application.properties"));
+        JwtProperties properties = Binder.get(environment).bindOrCreate("app.jwt", JwtProperties.class);
+        String legacySecret = environment.getProperty("app.jwt-secret", "");
+
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(properties, legacySecret));
+    }
+
+    @Test
+    void constructor_RejectsPublishedSampleSecret() {
+        String sample = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(new JwtProperties(), sample));
+    }
+
+    @Test
+    void constructor_RejectsShortSecretAndMissingActiveKey() {
+        JwtProperties.KeyDefinition weak = new JwtProperties.KeyDefinition();
+        weak.setId("zayif");
+        weak.setSecret(Base64.getEncoder().encodeToString("kisa".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IllegalStateException.class, () -> ring("zayif", weak));
+        assertThrows(IllegalStateException.class, () -> ring("yok", hmac("k1", "imza-anahtari")));
+    }
+}
@@ -0,0 +1,81 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.security.JwtKeyRing;
+import com.batuhanyalcin.security.JwtProperties;
+import com.batuhanyalcin.security.JwtUtils;
+import com.batuhanyalcin.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-0123456789-0123456789-0123456789-0123456789-0123456789";
+
+    private JwtUtils jwtUtils;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", 2);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", new JwtKeyRing(new JwtProperties(), SECRET));
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+    }
+
+    private String token(String username) {
+        UserPrincipal principal = new UserPrincipal(1L, username, username + "@example.com", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.counter("cache.gets", "cache", "jwt-claims", "result", result).count();
+    }
+
+    @Test
+    void getValidatedClaims_ParsesOnceThenServesFromCache() {
+        String token = token("musteri");
+
+        Claims first = jwtUtils.getValidatedClaims(token);
+        Claims second = jwtUtils.getValidatedClaims(token);
+
+        assertEquals("musteri", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, cacheGets("miss"));
+        assertEquals(1, cacheGets("hit"));
+    }
+
+    // İmzası tutmayan token reddedilir ve önbelleğe girmez
+    @Test
+    void getValidatedClaims_RejectsTamperedTokenWithoutCaching() {
+        String token = token("musteri");
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        assertNull(jwtUtils.getValidatedClaims(forged));
+        assertNull(jwtUtils.getValidatedClaims("bozuk-token"));
+        assertFalse(jwtUtils.validateJwtToken(null));
+        assertEquals(0, jwtUtils.cachedTokenCount());
+    }
+
+    @Test
+    void claimsCache_IsBoundedBySize() {
+        for (String username : List.of("a", "b", "c")) {
+            assertNotNull(jwtUtils.getValidatedClaims(token(username)));
+        }
+
+        assertEquals(2, jwtUtils.cachedTokenCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.security.JwtKeyRing;
+import com.batuhanyalcin.security.JwtProperties;
+import com.batuhanyalcin.security.JwtUtils;
+import com.batuhanyalcin.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// İstek başına JWT doğrulama maliyeti: eski filtre yolu (iki ayrı parser, iki imza doğrulaması),
+// tek parse ve doğrulanmış claim önbelleği. JMH ayrı bir JVM açtığı için test sınıf yolu ile çalıştırılır:
+// mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+// java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtValidationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "test-secret-0123456789-0123456789-0123456789-0123456789-0123456789";
+
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private Key key;
+    private String token;
+    private String uncachedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = jwtUtils(10000);
+        // Boyut 0: her çağrı parse eder, yalnızca tekil parser kazancı ölçülür
+        uncachedJwtUtils = jwtUtils(0);
+        key = ((JwtKeyRing) ReflectionTestUtils.getField(jwtUtils, "keyRing")).getSigningKey();
+
+        UserPrincipal principal = new UserPrincipal(1L, "musteri", "musteri@example.com", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+        uncachedToken = uncachedJwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    private static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(utils, "claimsCacheSize", cacheSize);
+        ReflectionTestUtils.setField(utils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(utils, "keyRing", new JwtKeyRing(new JwtProperties(), SECRET));
+        ReflectionTestUtils.invokeMethod(utils, "init");
+        return utils;
+    }
+
+    // Değişiklik öncesi: validateJwtToken ve getUserNameFromJwtToken her biri yeni parser kurup imzayı doğrular
+    @Benchmark
+    public String legacyDoubleParse() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        Claims claims = uncachedJwtUtils.getValidatedClaims(uncachedToken);
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String cachedClaims() {
+        Claims claims = jwtUtils.getValidatedClaims(token);
+        return claims.getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
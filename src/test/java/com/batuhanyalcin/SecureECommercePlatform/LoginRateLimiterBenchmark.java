@@ -0,0 +1,83 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Kısıtlanmayan girişte limiter maliyeti; karşılaştırma için tek bir BCrypt (maliyet 10) karşılaştırması ~50-100 ms'dir.
+// JwtValidationBenchmark ile aynı şekilde çalıştırılır:
+// java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main LoginRateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private LoginRateLimiter limiter;
+    private String[] usernames;
+    private String[] ips;
+
+    @Setup
+    public void setUp() {
+        limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        // Sınırlar ölçüm boyunca dolmayacak kadar geniş; yalnızca kabul yolu ölçülür
+        ReflectionTestUtils.setField(limiter, "userCapacity", 100_000_000);
+        ReflectionTestUtils.setField(limiter, "userRefillPeriod", Duration.ofNanos(10));
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 100_000_000);
+        ReflectionTestUtils.setField(limiter, "ipRefillPeriod", Duration.ofNanos(10));
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+
+        usernames = new String[USERS];
+        ips = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            usernames[i] = "kullanici" + i;
+            ips[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public int baseline() {
+        return ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    @Benchmark
+    public void checkLogin() {
+        int i = ThreadLocalRandom.current().nextInt(USERS);
+        limiter.checkLogin(usernames[i], ips[i]);
+    }
+
+    // Aynı kovalar üzerinde CAS çekişmesi
+    @Benchmark
+    @Threads(4)
+    public void checkLoginContended() {
+        int i = ThreadLocalRandom.current().nextInt(16);
+        limiter.checkLogin(usernames[i], ips[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoginRateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.exception.TooManyRequestsException;
+import com.batuhanyalcin.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "userCapacity", 3);
+        ReflectionTestUtils.setField(limiter, "userRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 5);
+        ReflectionTestUtils.setField(limiter, "ipRefillPeriod", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(limiter, "maxEntries", 10);
+        ReflectionTestUtils.setField(limiter, "clock", (LongSupplier) now::get);
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private double throttled(String key) {
+        return meterRegistry.counter("login.throttled", "key", key).count();
+    }
+
+    @Test
+    void checkLogin_UserBucketEmpties_ThenRefills() {
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("musteri", "10.0.0." + i);
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLogin("Musteri", "10.0.0.9"));
+        assertEquals(60, ex.getRetryAfterSeconds());
+        assertEquals(1, throttled("user"));
+
+        advance(Duration.ofMinutes(1));
+        limiter.checkLogin("musteri", "10.0.0.9");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("musteri", "10.0.0.9"));
+    }
+
+    // Kısıtlanan IP farklı kullanıcı adlarıyla da deneyemez ve kullanıcı kovalarını tüketmez
+    @Test
+    void checkLogin_IpBucketLimitsAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            limiter.checkLogin("kullanici" + i, "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("musteri", "10.0.0.1"));
+        assertEquals(1, throttled("ip"));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("musteri", "10.0.0.2");
+        }
+    }
+
+    @Test
+    void loginSucceeded_ResetsUserBucketOnly() {
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("musteri", "10.0.0.1");
+        }
+        limiter.loginSucceeded("musteri");
+
+        limiter.checkLogin("musteri", "10.0.0.1");
+        limiter.checkLogin("musteri", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("musteri", "10.0.0.1"));
+        assertEquals(1, throttled("ip"));
+    }
+
+    // Kayıt sayısı max-entries'i aşmaz; dolu kovalar periyodik olarak silinir
+    @Test
+    void buckets_StayBoundedAndFullOnesAreRemoved() {
+        for (int i = 0; i < 50; i++) {
+            limiter.checkLogin("kullanici" + i, "10.0." + i + ".1");
+        }
+
+        assertTrue(limiter.size() <= 20);
+        assertTrue(meterRegistry.counter("login.throttle.evictions", "key", "user").count() > 0);
+
+        advance(Duration.ofMinutes(1));
+        limiter.removeFullBuckets();
+        assertEquals(0, limiter.size());
+    }
+}
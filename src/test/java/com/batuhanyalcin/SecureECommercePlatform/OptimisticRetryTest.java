@@ -0,0 +1,100 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.exception.ConcurrentUpdateException;
+import com.batuhanyalcin.service.OptimisticRetry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticRetryTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(optimisticRetry, "backoff", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(optimisticRetry, "maxBackoff", Duration.ofMillis(2));
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Product", 1L);
+    }
+
+    @Test
+    void execute_RetriesConflictsInFreshTransactions() {
+        ReflectionTestUtils.invokeMethod(optimisticRetry, "init");
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute("product.update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(2.0, meterRegistry.get("optimistic.lock.conflicts").tag("operation", "product.update").counter().count());
+    }
+
+    @Test
+    void execute_GivesUpAfterMaxAttempts() {
+        ReflectionTestUtils.setField(optimisticRetry, "maxAttempts", 3);
+        ReflectionTestUtils.invokeMethod(optimisticRetry, "init");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute("order.cancel", () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("optimistic.lock.retries.exhausted").tag("reason", "attempts").counter().count());
+    }
+
+    // Bütçe bittiğinde çakışmalar yeniden denenmeden 409'a döner
+    @Test
+    void execute_StopsRetryingWhenBudgetIsSpent() {
+        ReflectionTestUtils.setField(optimisticRetry, "budgetMax", 2);
+        ReflectionTestUtils.setField(optimisticRetry, "budgetRatio", 0.0);
+        ReflectionTestUtils.invokeMethod(optimisticRetry, "init");
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute("order.status", () -> {
+                attempts.incrementAndGet();
+                throw conflict();
+            }));
+        }
+
+        // İlk çağrı iki birimi harcar (3 deneme), sonrakiler tek denemede kalır
+        assertEquals(5, attempts.get());
+        assertEquals(3.0, meterRegistry.get("optimistic.lock.retries.exhausted").tag("reason", "budget").counter().count());
+    }
+}
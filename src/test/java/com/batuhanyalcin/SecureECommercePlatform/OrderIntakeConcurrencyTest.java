@@ -0,0 +1,236 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderIntakeStatusDTO;
+import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.exception.InsufficientStockException;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.service.FlashSaleService;
+import com.batuhanyalcin.service.OptimisticRetry;
+import com.batuhanyalcin.service.OrderIntakeService;
+import com.batuhanyalcin.service.OrderRollupService;
+import com.batuhanyalcin.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Grup commit partileri ile senkron siparişler aynı ürünleri ve durum toplamı satırlarını paylaşır;
+// kilit sırası ortak olduğundan hiçbiri kilitlenmeye ya da kilit zaman aşımına düşmemeli
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "app.order-intake.workers=2", "app.order-intake.batch-size=20"})
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({OrderService.class, OrderRollupService.class, OptimisticRetry.class, OrderIntakeService.class,
+        OrderIntakeConcurrencyTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderIntakeConcurrencyTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    private static final int PRODUCTS = 6;
+    private static final int STOCK = 10_000;
+
+    @MockitoBean
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        user = new User();
+        user.setUsername("musteri");
+        user.setEmail("musteri@example.com");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_USER"));
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Ürün " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(STOCK);
+            products.add(product);
+        }
+        transaction.executeWithoutResult(status -> {
+            userRepository.save(user);
+            productRepository.saveAll(products);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            orderRepository.deleteAll();
+            productRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        orderRollupService.reconcile();
+    }
+
+    // Ürünler rastgele sırada; aynı ürün birden fazla satırda gelebilir
+    private OrderCreateDTO randomOrder(Random random) {
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(new OrderItemDTO(products.get(random.nextInt(PRODUCTS)).getId(), 1));
+        }
+        Collections.shuffle(items, random);
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setOrderItems(items);
+        return dto;
+    }
+
+    private int stock(Product product) {
+        return transaction.execute(status ->
+                productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private int totalStock() {
+        return transaction.execute(status -> productRepository.findAll().stream()
+                .mapToInt(Product::getStockQuantity).sum());
+    }
+
+    @Test
+    void intakeBatchesAndSyncCheckouts_DoNotDeadlock() throws Exception {
+        int intakeOrders = 300;
+        int syncThreads = 4;
+        int syncOrdersPerThread = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(syncThreads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> syncResults = new ArrayList<>();
+            for (int t = 0; t < syncThreads; t++) {
+                int seed = t;
+                syncResults.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    int created = 0;
+                    for (int i = 0; i < syncOrdersPerThread; i++) {
+                        orderService.createOrder(user.getId(), randomOrder(random));
+                        created++;
+                    }
+                    return created;
+                }));
+            }
+
+            Random random = new Random(42);
+            List<String> tickets = new ArrayList<>();
+            start.countDown();
+            for (int i = 0; i < intakeOrders; i++) {
+                tickets.add(orderIntakeService.submit(user.getId(), randomOrder(random)).getTicketId());
+            }
+
+            for (Future<Integer> result : syncResults) {
+                assertEquals(syncOrdersPerThread, result.get(60, TimeUnit.SECONDS));
+            }
+            for (String ticket : tickets) {
+                OrderIntakeStatusDTO status = awaitFinished(ticket);
+                assertEquals("COMPLETED", status.getStatus(), status.getError());
+            }
+
+            int orders = intakeOrders + syncThreads * syncOrdersPerThread;
+            assertEquals(PRODUCTS * STOCK - orders * 3, totalStock());
+            assertEquals(orders, orderService.getOrderStatusCounts().get("PENDING"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Partide stoğu yetmeyen sipariş yalnızca kendisi başarısız olur; stok satılabilen kadar düşer
+    @Test
+    void createOrders_FailsOnlyOrdersThatDoNotFit() {
+        Product last = products.get(0);
+        transaction.executeWithoutResult(status -> productRepository.updateStock(last.getId(), 2));
+        List<OrderService.BatchOrderRequest> requests = new ArrayList<>();
+        for (int quantity : new int[]{1, 2, 1}) {
+            OrderCreateDTO dto = new OrderCreateDTO();
+            dto.setOrderItems(List.of(new OrderItemDTO(last.getId(), quantity),
+                    new OrderItemDTO(products.get(1).getId(), 1)));
+            requests.add(new OrderService.BatchOrderRequest(user.getId(), dto));
+        }
+
+        List<OrderService.BatchOrderResult> results = orderService.createOrders(requests);
+
+        assertNotNull(results.get(0).order());
+        assertInstanceOf(InsufficientStockException.class, results.get(1).error());
+        assertNotNull(results.get(2).order());
+        assertEquals(0, stock(last));
+        assertEquals(STOCK - 2, stock(products.get(1)));
+        assertEquals(2L, orderService.getOrderStatusCounts().get("PENDING"));
+    }
+
+    private OrderIntakeStatusDTO awaitFinished(String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            OrderIntakeStatusDTO status = orderIntakeService.getStatus(user.getId(), ticketId);
+            if (!"QUEUED".equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Sipariş talebi zamanında işlenmedi: " + ticketId);
+        return null;
+    }
+}
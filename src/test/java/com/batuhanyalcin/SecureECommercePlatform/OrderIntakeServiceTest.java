@@ -0,0 +1,289 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderIntakeStatusDTO;
+import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.exception.InsufficientStockException;
+import com.batuhanyalcin.exception.ResourceNotFoundException;
+import com.batuhanyalcin.exception.ServiceUnavailableException;
+import com.batuhanyalcin.model.OrderIntakeTicket;
+import com.batuhanyalcin.repository.OrderIntakeTicketRepository;
+import com.batuhanyalcin.service.OrderIntakeService;
+import com.batuhanyalcin.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Talepler gerçek tabloya yazılır; her test kendi servis örneğini açar, böylece aynı tabloyu paylaşan
+// ikinci bir düğüm de canlandırılabilir
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderIntakeServiceTest {
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIntakeTicketRepository ticketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<OrderIntakeService> nodes = new ArrayList<>();
+    private OrderIntakeService orderIntakeService;
+
+    @AfterEach
+    void tearDown() {
+        for (OrderIntakeService node : nodes) {
+            ReflectionTestUtils.invokeMethod(node, "shutdown");
+        }
+        ticketRepository.deleteAll();
+    }
+
+    private OrderIntakeService node(int workers, int queueCapacity) {
+        OrderIntakeService node = new OrderIntakeService();
+        ReflectionTestUtils.setField(node, "orderService", orderService);
+        ReflectionTestUtils.setField(node, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(node, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(node, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(node, "meterRegistry", nodes.isEmpty() ? meterRegistry : new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(node, "workers", workers);
+        ReflectionTestUtils.setField(node, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(node, "pollInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.invokeMethod(node, "init");
+        nodes.add(node);
+        return node;
+    }
+
+    private void start(int workers, int queueCapacity) {
+        orderIntakeService = node(workers, queueCapacity);
+    }
+
+    private OrderCreateDTO order(long productId) {
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setOrderItems(List.of(new OrderItemDTO(productId, 1)));
+        return dto;
+    }
+
+    private OrderIntakeStatusDTO awaitFinished(String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            OrderIntakeStatusDTO status = orderIntakeService.getStatus(1L, ticketId);
+            if (!"QUEUED".equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Sipariş talebi zamanında işlenmedi: " + ticketId);
+        return null;
+    }
+
+    private static OrderResponseDTO response(long id) {
+        OrderResponseDTO response = new OrderResponseDTO();
+        response.setId(id);
+        return response;
+    }
+
+    // İlk sipariş işlenirken çağrıyı bekletir; sonra gelenler bir sonraki partide toplanır
+    private CountDownLatch blockFirstOrder(CountDownLatch firstStarted) {
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(orderService.createOrder(eq(1L), any(OrderCreateDTO.class))).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            releaseFirst.await(5, TimeUnit.SECONDS);
+            return response(100L);
+        });
+        return releaseFirst;
+    }
+
+    @Test
+    void queuedOrdersAreCommittedTogetherInOneBatch() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = blockFirstOrder(firstStarted);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderService.BatchOrderRequest> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> new OrderService.BatchOrderResult(
+                            response(request.order().getOrderItems().get(0).getProductId() + 100), null))
+                    .toList();
+        });
+        start(1, 100);
+
+        List<String> tickets = new ArrayList<>();
+        tickets.add(orderIntakeService.submit(1L, order(0L)).getTicketId());
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        for (long productId = 1; productId <= 5; productId++) {
+            tickets.add(orderIntakeService.submit(1L, order(productId)).getTicketId());
+        }
+        releaseFirst.countDown();
+
+        for (int i = 0; i < tickets.size(); i++) {
+            OrderIntakeStatusDTO status = awaitFinished(tickets.get(i));
+            assertEquals("COMPLETED", status.getStatus());
+            assertEquals(100L + i, status.getOrder().getId());
+        }
+        verify(orderService, times(1)).createOrders(argThat(requests -> requests.size() == 5));
+        assertEquals(6, meterRegistry.get("order.intake.latency").tag("outcome", "completed").timer().count());
+    }
+
+    // Stoğu yetmeyen sipariş partiyi geri almaz; yalnızca kendisi başarısız olur
+    @Test
+    void failedOrderFailsAloneWithinBatch() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = blockFirstOrder(firstStarted);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderService.BatchOrderRequest> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> request.order().getOrderItems().get(0).getProductId() == 2L
+                            ? new OrderService.BatchOrderResult(null, new InsufficientStockException("Yetersiz stok: Ürün 2"))
+                            : new OrderService.BatchOrderResult(response(1L), null))
+                    .toList();
+        });
+        start(1, 100);
+
+        String first = orderIntakeService.submit(1L, order(0L)).getTicketId();
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        String ok1 = orderIntakeService.submit(1L, order(1L)).getTicketId();
+        String failing = orderIntakeService.submit(1L, order(2L)).getTicketId();
+        String ok3 = orderIntakeService.submit(1L, order(3L)).getTicketId();
+        releaseFirst.countDown();
+
+        assertEquals("COMPLETED", awaitFinished(first).getStatus());
+        assertEquals("COMPLETED", awaitFinished(ok1).getStatus());
+        OrderIntakeStatusDTO failed = awaitFinished(failing);
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals("Yetersiz stok: Ürün 2", failed.getError());
+        assertEquals("COMPLETED", awaitFinished(ok3).getStatus());
+        verify(orderService, times(1)).createOrder(anyLong(), any(OrderCreateDTO.class));
+    }
+
+    // Parti beklenmedik bir hatayla geri alınırsa siparişler kendi işlemlerinde tek tek denenir
+    @Test
+    void unexpectedBatchFailureRetriesOrdersIndividually() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = blockFirstOrder(firstStarted);
+        when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("bağlantı koptu"));
+        start(1, 100);
+
+        String first = orderIntakeService.submit(1L, order(0L)).getTicketId();
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        String second = orderIntakeService.submit(1L, order(1L)).getTicketId();
+        String third = orderIntakeService.submit(1L, order(2L)).getTicketId();
+        releaseFirst.countDown();
+
+        assertEquals("COMPLETED", awaitFinished(first).getStatus());
+        assertEquals("COMPLETED", awaitFinished(second).getStatus());
+        assertEquals("COMPLETED", awaitFinished(third).getStatus());
+        verify(orderService, times(3)).createOrder(eq(1L), any(OrderCreateDTO.class));
+    }
+
+    @Test
+    void submit_RejectsWhenQueueIsFull() {
+        start(0, 1);
+
+        orderIntakeService.submit(1L, order(1L));
+
+        assertThrows(ServiceUnavailableException.class, () -> orderIntakeService.submit(1L, order(2L)));
+        assertEquals(1.0, meterRegistry.get("order.intake.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("order.intake.rejected").counter().count());
+    }
+
+    @Test
+    void getStatus_HidesTicketsOfOtherUsers() {
+        start(0, 10);
+
+        String ticketId = orderIntakeService.submit(1L, order(1L)).getTicketId();
+
+        assertThrows(ResourceNotFoundException.class, () -> orderIntakeService.getStatus(2L, ticketId));
+        assertThrows(ResourceNotFoundException.class, () -> orderIntakeService.getStatus(1L, "yok"));
+    }
+
+    // Kabul eden düğüm işlemeden kapanırsa talep tabloda kalır; başka düğüm hem durumu gösterir hem de işler
+    @Test
+    void acceptedTicketSurvivesNodeAndIsProcessedByAnotherNode() throws Exception {
+        when(orderService.createOrder(eq(1L), any(OrderCreateDTO.class))).thenReturn(response(7L));
+        OrderIntakeService accepting = node(0, 10);
+        String ticketId = accepting.submit(1L, order(1L)).getTicketId();
+        ReflectionTestUtils.invokeMethod(accepting, "shutdown");
+
+        orderIntakeService = node(1, 10);
+
+        OrderIntakeStatusDTO status = awaitFinished(ticketId);
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(7L, status.getOrder().getId());
+        assertEquals(7L, ticketRepository.findById(UUID.fromString(ticketId)).orElseThrow().getOrderId());
+    }
+
+    // İki düğümün işçileri aynı tabloyu boşaltır; SKIP LOCKED sayesinde hiçbir talep iki kez işlenmez
+    @Test
+    void workersOnTwoNodesProcessEachTicketOnce() throws Exception {
+        when(orderService.createOrder(eq(1L), any(OrderCreateDTO.class))).thenReturn(response(1L));
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderService.BatchOrderRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(request -> new OrderService.BatchOrderResult(response(1L), null)).toList();
+        });
+        OrderIntakeService submitting = node(0, 1000);
+        List<String> tickets = new ArrayList<>();
+        for (long productId = 0; productId < 200; productId++) {
+            tickets.add(submitting.submit(1L, order(productId)).getTicketId());
+        }
+
+        orderIntakeService = node(2, 1000);
+        node(2, 1000);
+
+        for (String ticketId : tickets) {
+            assertEquals("COMPLETED", awaitFinished(ticketId).getStatus());
+        }
+        int processed = mockingDetails(orderService).getInvocations().stream()
+                .mapToInt(invocation -> invocation.getMethod().getName().equals("createOrders")
+                        ? invocation.<List<?>>getArgument(0).size() : 1)
+                .sum();
+        assertEquals(tickets.size(), processed);
+    }
+
+    @Test
+    void purgeFinishedTickets_DeletesOnlyExpiredFinishedTickets() {
+        start(0, 10);
+        String queued = orderIntakeService.submit(1L, order(1L)).getTicketId();
+        String finished = orderIntakeService.submit(1L, order(2L)).getTicketId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            OrderIntakeTicket ticket = ticketRepository.findById(UUID.fromString(finished)).orElseThrow();
+            ticket.setStatus(OrderIntakeTicket.Status.FAILED);
+            ticket.setFinishedAt(LocalDateTime.now().minusHours(1));
+        });
+
+        orderIntakeService.purgeFinishedTickets();
+
+        assertEquals("QUEUED", orderIntakeService.getStatus(1L, queued).getStatus());
+        assertThrows(ResourceNotFoundException.class, () -> orderIntakeService.getStatus(1L, finished));
+    }
+}
@@ -0,0 +1,220 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.order.OrderPageDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.model.OrderItem;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.service.FlashSaleService;
+import com.batuhanyalcin.service.OptimisticRetry;
+import com.batuhanyalcin.service.OrderRollupService;
+import com.batuhanyalcin.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Okuma yollarının attığı SQL sayısı sipariş ve kalem sayısıyla büyümemeli
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({OrderService.class, OptimisticRetry.class, OrderRollupService.class, OrderReadQueryCountTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderReadQueryCountTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private User user;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setUsername("musteri");
+        user.setEmail("musteri@example.com");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_USER"));
+        products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Ürün " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(1000);
+            products.add(product);
+        }
+        transaction.executeWithoutResult(status -> {
+            userRepository.save(user);
+            productRepository.saveAll(products);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            orderRepository.deleteAll();
+            productRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    private void addOrders(int count) {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                Order order = new Order();
+                order.setUser(user);
+                order.setOrderDate(LocalDateTime.now());
+                order.setStatus(OrderStatus.PENDING);
+                order.setTotalAmount(new BigDecimal("30.00"));
+                for (Product product : products) {
+                    OrderItem item = new OrderItem();
+                    item.setOrder(order);
+                    item.setProduct(product);
+                    item.setQuantity(1);
+                    item.setPrice(product.getPrice());
+                    order.getOrderItems().add(item);
+                }
+                orderRepository.save(order);
+            }
+        });
+    }
+
+    private long statements(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void orderReads_UseFixedNumberOfStatements() {
+        addOrders(3);
+        long userPageFew = statements(() -> orderService.getUserOrders(user.getId(), null, 50));
+        long recentFew = statements(() -> orderService.getRecentOrders(5));
+        long allFew = statements(() -> orderService.getAllOrders());
+        long countsFew = statements(() -> orderService.getOrderStatusCounts());
+
+        addOrders(40);
+        long userPageMany = statements(() -> orderService.getUserOrders(user.getId(), null, 50));
+        long recentMany = statements(() -> orderService.getRecentOrders(5));
+        long allMany = statements(() -> orderService.getAllOrders());
+        long countsMany = statements(() -> orderService.getOrderStatusCounts());
+
+        // Kullanıcı kontrolü + sipariş sayfası + kalemler
+        assertEquals(3, userPageFew);
+        assertEquals(userPageFew, userPageMany);
+        // Siparişler + kalemler
+        assertEquals(2, recentFew);
+        assertEquals(recentFew, recentMany);
+        assertEquals(2, allFew);
+        assertEquals(allFew, allMany);
+        // Durum dağılımı toplam tablosundan tek sorguyla gelir
+        assertEquals(1, countsFew);
+        assertEquals(countsFew, countsMany);
+    }
+
+    @Test
+    void getUserOrders_WalksPagesWithCursor() {
+        addOrders(5);
+
+        OrderPageDTO first = orderService.getUserOrders(user.getId(), null, 3);
+        OrderPageDTO second = orderService.getUserOrders(user.getId(), first.getNextCursor(), 3);
+
+        assertTrue(first.isHasNext());
+        assertEquals(3, first.getItems().size());
+        assertFalse(second.isHasNext());
+        assertEquals(2, second.getItems().size());
+        assertTrue(first.getItems().get(2).getId() > second.getItems().get(0).getId());
+        assertEquals(3, second.getItems().get(1).getOrderItems().size());
+    }
+
+    // Açık sipariş kuyruğu yalnızca PENDING/PROCESSING siparişleri id sırasıyla döner; sayfa başına üç sorgu
+    @Test
+    void getOpenOrders_SkipsClosedOrdersAndUsesFixedStatements() {
+        addOrders(5);
+        List<Long> ids = orderRepository.findAll().stream().map(Order::getId).sorted().toList();
+        orderService.updateOrderStatus(ids.get(0), "SHIPPED");
+        orderService.updateOrderStatus(ids.get(2), "CANCELLED");
+        orderService.updateOrderStatus(ids.get(3), "PROCESSING");
+
+        OrderPageDTO[] pages = new OrderPageDTO[2];
+        long statements = statements(() -> pages[0] = orderService.getOpenOrders(null, 2));
+        pages[1] = orderService.getOpenOrders(pages[0].getNextCursor(), 2);
+
+        assertEquals(3, statements);
+        assertEquals(List.of(ids.get(1), ids.get(3)), pages[0].getItems().stream().map(OrderResponseDTO::getId).toList());
+        assertEquals("PROCESSING", pages[0].getItems().get(1).getStatus());
+        assertEquals(3, pages[0].getItems().get(0).getOrderItems().size());
+        assertTrue(pages[0].isHasNext());
+        assertEquals(List.of(ids.get(4)), pages[1].getItems().stream().map(OrderResponseDTO::getId).toList());
+        assertFalse(pages[1].isHasNext());
+    }
+
+    // Kalemlere entity üzerinden erişen kod için koleksiyonlar 50'şerli IN sorgusuyla yüklenir
+    @Test
+    void orderItemCollections_AreBatchFetched() {
+        addOrders(40);
+
+        long statements = statements(() -> transaction.executeWithoutResult(status ->
+                orderRepository.findAll().forEach(order -> order.getOrderItems().size())));
+
+        assertEquals(2, statements);
+    }
+}
@@ -0,0 +1,169 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.order.OrderCreateDTO;
+import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderResponseDTO;
+import com.batuhanyalcin.exception.InvalidOrderStatusException;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.OrderStatusTotalRepository;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.service.FlashSaleService;
+import com.batuhanyalcin.service.OptimisticRetry;
+import com.batuhanyalcin.service.OrderRollupService;
+import com.batuhanyalcin.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sipariş yazan işlemlerin güncellediği durum toplamları SQL SUM ile aynı kalmalı
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({OrderService.class, OrderRollupService.class, OptimisticRetry.class, OrderRollupTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderRollupTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusTotalRepository orderStatusTotalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        user = new User();
+        user.setUsername("musteri");
+        user.setEmail("musteri@example.com");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_USER"));
+        product = new Product();
+        product.setName("Kalem");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(100);
+        transaction.executeWithoutResult(status -> {
+            userRepository.save(user);
+            productRepository.save(product);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            orderRepository.deleteAll();
+            productRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        orderRollupService.reconcile();
+    }
+
+    private OrderResponseDTO order(int quantity) {
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setOrderItems(List.of(new OrderItemDTO(product.getId(), quantity)));
+        return orderService.createOrder(user.getId(), dto);
+    }
+
+    private BigDecimal sqlRevenue() {
+        return transaction.execute(status -> orderRepository.sumTotalsByStatus().stream()
+                .filter(row -> OrderRollupService.REVENUE_STATUSES.contains(((OrderStatus) row[0]).name()))
+                .map(row -> (BigDecimal) row[2])
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    void revenue_FollowsStatusTransitions() {
+        OrderResponseDTO shipped = order(1);
+        OrderResponseDTO delivered = order(2);
+        OrderResponseDTO cancelled = order(4);
+        assertEquals(0, BigDecimal.ZERO.compareTo(orderService.getTotalRevenue()));
+
+        orderService.updateOrderStatus(shipped.getId(), "SHIPPED");
+        orderService.updateOrderStatus(delivered.getId(), "SHIPPED");
+        orderService.updateOrderStatus(delivered.getId(), "DELIVERED");
+        orderService.cancelOrder(cancelled.getId());
+
+        assertEquals(0, new BigDecimal("30.00").compareTo(orderService.getTotalRevenue()));
+        assertEquals(0, sqlRevenue().compareTo(orderService.getTotalRevenue()));
+        assertEquals(Map.of("PENDING", 0L, "PROCESSING", 0L, "SHIPPED", 1L, "DELIVERED", 1L, "CANCELLED", 1L),
+                orderService.getOrderStatusCounts());
+
+        // Geçiş tablosunda olmayan geri dönüş reddedilir, toplamlar değişmez
+        assertThrows(InvalidOrderStatusException.class,
+                () -> orderService.updateOrderStatus(shipped.getId(), "PROCESSING"));
+        assertEquals(0, new BigDecimal("30.00").compareTo(orderService.getTotalRevenue()));
+        assertEquals(1L, orderService.getOrderStatusCounts().get("SHIPPED"));
+    }
+
+    @Test
+    void reconcile_CorrectsDriftFromSqlSum() {
+        OrderResponseDTO delivered = order(3);
+        orderService.updateOrderStatus(delivered.getId(), "SHIPPED");
+        orderService.updateOrderStatus(delivered.getId(), "DELIVERED");
+        transaction.executeWithoutResult(status ->
+                orderStatusTotalRepository.add("DELIVERED", 5, 2, new BigDecimal("100.00")));
+        assertEquals(0, new BigDecimal("130.00").compareTo(orderService.getTotalRevenue()));
+        double driftBefore = meterRegistry.counter("order.rollup.drift", "status", "DELIVERED").count();
+
+        orderRollupService.reconcile();
+
+        assertEquals(0, new BigDecimal("30.00").compareTo(orderService.getTotalRevenue()));
+        assertEquals(1L, orderService.getOrderStatusCounts().get("DELIVERED"));
+        assertEquals(driftBefore + 1, meterRegistry.counter("order.rollup.drift", "status", "DELIVERED").count());
+    }
+}
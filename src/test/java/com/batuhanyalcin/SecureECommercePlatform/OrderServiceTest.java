@@ -2,30 +2,47 @@ package com.batuhanyalcin.SecureECommercePlatform;
 
 import com.batuhanyalcin.dto.order.OrderCreateDTO;
 import com.batuhanyalcin.dto.order.OrderItemDTO;
+import com.batuhanyalcin.dto.order.OrderPageDTO;
 import com.batuhanyalcin.dto.order.OrderResponseDTO;
 import com.batuhanyalcin.exception.InsufficientStockException;
+import com.batuhanyalcin.exception.InvalidOrderStatusException;
+import com.batuhanyalcin.exception.InvalidRequestException;
 import com.batuhanyalcin.exception.ResourceNotFoundException;
 import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.model.OrderItem;
+import com.batuhanyalcin.model.OrderStatus;
 import com.batuhanyalcin.model.Product;
 import com.batuhanyalcin.model.User;
 import com.batuhanyalcin.repository.OrderRepository;
 import com.batuhanyalcin.repository.ProductRepository;
 import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.service.FlashSaleService;
+import com.batuhanyalcin.service.OptimisticRetry;
+import com.batuhanyalcin.service.OrderRollupService;
 import com.batuhanyalcin.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +57,18 @@ public class OrderServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    @Mock
+    private OrderRollupService orderRollupService;
+
+    @Mock
+    private OptimisticRetry optimisticRetry;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -76,16 +105,72 @@ public class OrderServiceTest {
     @Test
     void createOrder_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.reserveStock(any())).thenReturn(List.of());
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
 
         OrderResponseDTO response = orderService.createOrder(1L, orderCreateDTO);
 
         assertNotNull(response);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).reserveStock(new TreeMap<>(Map.of(1L, 2)));
+        verify(productRepository, never()).save(any(Product.class));
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    void createOrder_ReservesEachProductOnceInIdOrder() {
+        Product second = new Product();
+        second.setId(5L);
+        second.setName("Second Product");
+        second.setPrice(new BigDecimal("10.00"));
+        second.setStockQuantity(10);
+        orderCreateDTO.setOrderItems(List.of(
+                new OrderItemDTO(5L, 1), new OrderItemDTO(1L, 2), new OrderItemDTO(5L, 3)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(productRepository.findAllById(any())).thenReturn(List.of(second, testProduct));
+        when(productRepository.reserveStock(any())).thenReturn(List.of());
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+        OrderResponseDTO response = orderService.createOrder(1L, orderCreateDTO);
+
+        ArgumentCaptor<SortedMap<Long, Integer>> quantities = ArgumentCaptor.forClass(SortedMap.class);
+        verify(productRepository).reserveStock(quantities.capture());
+        assertEquals(List.of(1L, 5L), new ArrayList<>(quantities.getValue().keySet()));
+        assertEquals(4, quantities.getValue().get(5L));
+        assertEquals(3, response.getOrderItems().size());
+        assertEquals(new BigDecimal("240.00"), response.getTotalAmount());
+    }
+
+    @Test
+    void createOrder_FlashSaleProductsSkipTheStockUpdate() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(flashSaleService.isActive(1L)).thenReturn(true);
+        when(flashSaleService.reserve(any())).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+        orderService.createOrder(1L, orderCreateDTO);
+
+        verify(flashSaleService).reserve(new TreeMap<>(Map.of(1L, 2)));
+        verify(productRepository, never()).reserveStock(any());
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        assertFalse(saved.getValue().getOrderItems().get(0).isStockApplied());
+    }
+
+    @Test
+    void createOrder_FlashSaleSoldOut() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(flashSaleService.isActive(1L)).thenReturn(true);
+        when(flashSaleService.reserve(any())).thenReturn(false);
+
+        assertThrows(InsufficientStockException.class, () -> {
+            orderService.createOrder(1L, orderCreateDTO);
+        });
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     void createOrder_UserNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -99,27 +184,103 @@ public class OrderServiceTest {
     void createOrder_InsufficientStock() {
         testProduct.setStockQuantity(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
 
         assertThrows(InsufficientStockException.class, () -> {
             orderService.createOrder(1L, orderCreateDTO);
         });
+        verify(productRepository, never()).reserveStock(any());
     }
 
     @Test
-    void getUserOrders_Success() {
-        List<Order> orders = new ArrayList<>();
+    void createOrder_FailsWhenConcurrentOrderTookTheStock() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.reserveStock(any())).thenReturn(List.of(1L));
+
+        assertThrows(InsufficientStockException.class, () -> {
+            orderService.createOrder(1L, orderCreateDTO);
+        });
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void getUserOrders_ReturnsPageWithCursor() {
+        List<OrderResponseDTO> rows = new ArrayList<>();
+        for (long id = 30; id > 27; id--) {
+            rows.add(new OrderResponseDTO(id, 1L, new BigDecimal("20.00"), LocalDateTime.now(), OrderStatus.PENDING));
+        }
+        List<Object[]> itemRows = new ArrayList<>();
+        itemRows.add(new Object[]{30L, 1L, 2});
+        itemRows.add(new Object[]{29L, 1L, 1});
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findDTOsByUserIdBefore(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(rows);
+        when(orderRepository.findItemRowsByOrderIdIn(List.of(30L, 29L))).thenReturn(itemRows);
+
+        OrderPageDTO page = orderService.getUserOrders(1L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertEquals("29", page.getNextCursor());
+        assertEquals(2, page.getItems().get(0).getOrderItems().get(0).getQuantity());
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void getUserOrders_RejectsMalformedCursor() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> orderService.getUserOrders(1L, "abc", null));
+    }
+
+    private Order storedOrder(OrderStatus status) {
         Order order = new Order();
+        order.setId(7L);
         order.setUser(testUser);
-        orders.add(order);
+        order.setOrderDate(LocalDateTime.now());
+        order.setTotalAmount(new BigDecimal("200.00"));
+        order.setStatus(status);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(testProduct);
+        item.setQuantity(2);
+        item.setPrice(testProduct.getPrice());
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(orderRepository.findByUser(testUser)).thenReturn(orders);
+    private void runRetryInline() {
+        when(optimisticRetry.execute(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+    }
 
-        List<OrderResponseDTO> response = orderService.getUserOrders(1L);
+    @Test
+    void updateOrderStatus_RejectsUnknownStatus() {
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.updateOrderStatus(7L, "COMPLETED"));
+        verifyNoInteractions(orderRepository);
+    }
 
-        assertNotNull(response);
-        assertFalse(response.isEmpty());
-        verify(orderRepository).findByUser(testUser);
+    @Test
+    void updateOrderStatus_RejectsTransitionOutsideTable() {
+        runRetryInline();
+        when(orderRepository.findWithItemsById(7L)).thenReturn(Optional.of(storedOrder(OrderStatus.DELIVERED)));
+
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.updateOrderStatus(7L, "SHIPPED"));
+        verify(orderRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(orderRollupService);
+    }
+
+    @Test
+    void updateOrderStatus_CancelledReleasesStock() {
+        runRetryInline();
+        when(orderRepository.findWithItemsById(7L)).thenReturn(Optional.of(storedOrder(OrderStatus.PROCESSING)));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderResponseDTO result = orderService.updateOrderStatus(7L, "CANCELLED");
+
+        assertEquals("CANCELLED", result.getStatus());
+        verify(productRepository).releaseStock(new TreeMap<>(Map.of(1L, 2)));
+        verify(orderRollupService).recordTransition(OrderStatus.PROCESSING, OrderStatus.CANCELLED, new BigDecimal("200.00"));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.config.OrderStatusMigration;
+import com.batuhanyalcin.model.Order;
+import com.batuhanyalcin.model.OrderStatus;
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.OrderRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Eski varchar durum kolonundan smallint koda geçiş; şema Hibernate'in oluşturduğu tablodan eski haline döndürülür
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import(OrderStatusMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderStatusMigrationTest {
+
+    @Autowired
+    private OrderStatusMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("musteri");
+        user.setEmail("musteri@example.com");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_USER"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.save(user));
+
+        jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN status_code");
+        jdbcTemplate.execute("ALTER TABLE orders ADD COLUMN status VARCHAR(255)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders");
+        if (columnExists("STATUS")) {
+            jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN status");
+        }
+        if (!columnExists("STATUS_CODE")) {
+            jdbcTemplate.execute("ALTER TABLE orders ADD COLUMN status_code SMALLINT NOT NULL");
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.deleteAll());
+    }
+
+    private boolean columnExists(String column) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'ORDERS' AND COLUMN_NAME = ?", Integer.class, column);
+        return count != null && count > 0;
+    }
+
+    private void insertLegacy(String status) {
+        jdbcTemplate.update("INSERT INTO orders (user_id, total_amount, order_date, status, version) "
+                + "VALUES (?, 10.00, CURRENT_TIMESTAMP, ?, 0)", user.getId(), status);
+    }
+
+    @Test
+    void migrate_CopiesLegacyStatusesToCodes() {
+        insertLegacy("PENDING");
+        insertLegacy("SHIPPED");
+        insertLegacy("CANCELLED");
+
+        ReflectionTestUtils.invokeMethod(migration, "migrate");
+
+        assertFalse(columnExists("STATUS"));
+        List<OrderStatus> statuses = orderRepository.findAll().stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .map(Order::getStatus)
+                .toList();
+        assertEquals(List.of(OrderStatus.PENDING, OrderStatus.SHIPPED, OrderStatus.CANCELLED), statuses);
+        assertEquals(Map.of("IS_NULLABLE", "NO"), jdbcTemplate.queryForMap("SELECT IS_NULLABLE FROM "
+                + "INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'ORDERS' AND COLUMN_NAME = 'STATUS_CODE'"));
+    }
+
+    // Tanınmayan durum varsa eski kolon silinmez, açılış hatayla durur
+    @Test
+    void migrate_FailsOnUnknownStatusAndKeepsLegacyColumn() {
+        insertLegacy("PENDING");
+        insertLegacy("COMPLETED");
+
+        assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(migration, "migrate"));
+
+        assertTrue(columnExists("STATUS"));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+    }
+}
@@ -0,0 +1,142 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.service.ProductCache;
+import com.batuhanyalcin.service.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(2, Duration.ofMinutes(5), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private ProductResponseDTO load(Long id) {
+        loads.incrementAndGet();
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        dto.setName("Product " + id);
+        return dto;
+    }
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        productCache.get(1L, this::load);
+        productCache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedBeyondMaxSize() {
+        productCache.get(1L, this::load);
+        productCache.get(2L, this::load);
+        productCache.get(1L, this::load);
+        productCache.get(3L, this::load);
+
+        assertEquals(2, productCache.size());
+        assertNotNull(productCache.getIfPresent(1L));
+        assertNull(productCache.getIfPresent(2L));
+    }
+
+    @Test
+    void get_ReloadsExpiredEntries() throws InterruptedException {
+        ProductCache shortLived = new ProductCache(10, Duration.ofMillis(1), meterRegistry);
+        shortLived.get(1L, this::load);
+        Thread.sleep(5);
+        shortLived.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onProductChanged_EvictsEntry() {
+        productCache.get(1L, this::load);
+
+        productCache.onProductChanged(ProductChangedEvent.stockChanged(1L));
+
+        assertNull(productCache.getIfPresent(1L));
+    }
+
+    @Test
+    void get_DoesNotCacheValueLoadedDuringInvalidation() {
+        productCache.get(1L, id -> {
+            ProductResponseDTO stale = load(id);
+            productCache.evict(id);
+            return stale;
+        });
+
+        assertNull(productCache.getIfPresent(1L));
+    }
+
+    @Test
+    void getAll_DoesNotCacheValuesLoadedDuringInvalidation() {
+        productCache.getAll(List.of(1L, 2L), ids -> {
+            Map<Long, ProductResponseDTO> loaded = new HashMap<>();
+            ids.forEach(id -> loaded.put(id, load(id)));
+            productCache.evict(2L);
+            return loaded;
+        });
+
+        assertNull(productCache.getIfPresent(1L));
+        assertNull(productCache.getIfPresent(2L));
+    }
+
+    // Yükleme ile geçersiz kılma yarışsa da son geçersiz kılmadan önce okunmuş değer önbellekte kalmamalı
+    @Test
+    void concurrentLoadsAndInvalidations_NeverLeaveStaleValue() throws Exception {
+        AtomicLong version = new AtomicLong();
+        Function<Long, ProductResponseDTO> loader = id -> {
+            ProductResponseDTO dto = load(id);
+            dto.setVersion(version.get());
+            return dto;
+        };
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                readers.submit(() -> {
+                    while (!done.get()) {
+                        productCache.get(1L, loader);
+                    }
+                });
+            }
+            for (int i = 0; i < 20_000; i++) {
+                version.incrementAndGet();
+                productCache.evict(1L);
+            }
+        } finally {
+            done.set(true);
+            readers.shutdown();
+        }
+        assertTrue(readers.awaitTermination(5, TimeUnit.SECONDS));
+
+        ProductResponseDTO cached = productCache.getIfPresent(1L);
+        assertTrue(cached == null || cached.getVersion() == version.get());
+    }
+}
@@ -0,0 +1,93 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductImportResultDTO;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    private ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importProducts_Csv_ReportsInvalidRowsAndImportsValidOnes() throws Exception {
+        List<String> imported = new ArrayList<>();
+        when(productRepository.batchInsert(anyList())).thenAnswer(i -> {
+            List<Product> products = i.getArgument(0);
+            products.forEach(p -> imported.add(p.getName()));
+            return products.size();
+        });
+
+        String csv = "name,description,price,stock_quantity\n"
+                + "\"Kalem, mavi\",Tükenmez kalem,12.50,100\n"
+                + "Defter,,abc,5\n"
+                + "Silgi,Beyaz silgi,3.00,-1\n"
+                + "Cetvel,30 cm,8.90,40\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(body(csv), ProductImportService.Format.CSV);
+
+        assertEquals(4, result.getProcessedRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of("Kalem, mavi", "Cetvel"), imported);
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals(4, result.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void importProducts_Ndjson_ReportsMalformedLines() throws Exception {
+        when(productRepository.batchInsert(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+
+        String ndjson = "{\"name\":\"Çanta\",\"description\":\"Deri\",\"price\":250,\"stockQuantity\":3}\n"
+                + "{bozuk\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(body(ndjson), ProductImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        verify(productRepository, times(1)).batchInsert(anyList());
+    }
+}
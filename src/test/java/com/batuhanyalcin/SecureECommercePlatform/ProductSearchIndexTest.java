@@ -0,0 +1,65 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.service.ProductChangedEvent;
+import com.batuhanyalcin.service.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(product(1L, "IŞIKLI Masa Lambası", "Çalışma masası için LED ışık"));
+        index.index(product(2L, "İstanbul Kahvesi", "Türk kahvesi, orta kavrulmuş"));
+        index.index(product(3L, "Kahve Fincanı", "Porselen fincan, İstanbul motifli"));
+    }
+
+    private ProductResponseDTO product(Long id, String name, String description) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setDescription(description);
+        return dto;
+    }
+
+    @Test
+    void search_AppliesTurkishCaseRules() {
+        assertEquals(List.of(1L), index.search("ışıklı", 10));
+        assertEquals(List.of(1L), index.search("isikli", 10));
+        assertEquals(List.of(2L, 3L), index.search("ISTANBUL", 10));
+    }
+
+    @Test
+    void search_RanksNameMatchesAboveDescriptionMatches() {
+        List<Long> results = index.search("istanbul", 10);
+
+        assertEquals(2L, results.get(0));
+        assertEquals(3L, results.get(1));
+    }
+
+    @Test
+    void search_MatchesPrefixesAndRequiresAllTerms() {
+        assertEquals(List.of(2L, 3L), index.search("kahv", 10));
+        assertEquals(List.of(3L), index.search("kahve fin", 10));
+        assertTrue(index.search("kahve lamba", 10).isEmpty());
+    }
+
+    @Test
+    void onProductChanged_UpdatesAndRemovesDocuments() {
+        index.onProductChanged(ProductChangedEvent.updated(product(3L, "Çay Bardağı", "İnce belli")));
+        assertEquals(List.of(2L), index.search("kahve", 10));
+        assertEquals(List.of(3L), index.search("cay", 10));
+
+        index.onProductChanged(ProductChangedEvent.deleted(3L));
+        assertTrue(index.search("cay", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
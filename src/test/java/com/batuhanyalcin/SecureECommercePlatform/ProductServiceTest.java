@@ -1,19 +1,30 @@
 package com.batuhanyalcin.SecureECommercePlatform;
 
 import com.batuhanyalcin.dto.product.ProductCreateDTO;
+import com.batuhanyalcin.dto.product.ProductLookupDTO;
+import com.batuhanyalcin.dto.product.ProductPageDTO;
 import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.exception.InvalidRequestException;
 import com.batuhanyalcin.exception.ResourceNotFoundException;
 import com.batuhanyalcin.model.Product;
 import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.ProductCache;
+import com.batuhanyalcin.service.ProductChangedEvent;
+import com.batuhanyalcin.service.FlashSaleService;
 import com.batuhanyalcin.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +39,15 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
     @InjectMocks
     private ProductService productService;
 
@@ -63,7 +83,7 @@ public class ProductServiceTest {
 
     @Test
     void getAllProducts_Success() {
-        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
+        when(productRepository.findAllDTOs()).thenReturn(Arrays.asList(ProductResponseDTO.from(testProduct)));
 
         List<ProductResponseDTO> results = productService.getAllProducts();
         
@@ -76,7 +96,7 @@ public class ProductServiceTest {
 
     @Test
     void getProductById_Success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(ProductResponseDTO.from(testProduct)));
 
         ProductResponseDTO result = productService.getProductById(1L);
 
@@ -85,9 +105,68 @@ public class ProductServiceTest {
         System.out.println("FindById" + result);
     }
 
+    @Test
+    void getProductById_ServedFromCacheOnSecondCall() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(ProductResponseDTO.from(testProduct)));
+
+        productService.getProductById(1L);
+        ProductResponseDTO result = productService.getProductById(1L);
+
+        assertEquals(testProduct.getName(), result.getName());
+        verify(productRepository, times(1)).findDTOById(1L);
+    }
+
+    @Test
+    void getProductsByIds_LoadsOnlyCacheMissesInOneQuery() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(ProductResponseDTO.from(testProduct)));
+        productService.getProductById(1L);
+
+        ProductResponseDTO second = new ProductResponseDTO();
+        second.setId(2L);
+        second.setName("Second Product");
+        when(productRepository.findDTOsByIdIn(List.of(3L, 2L))).thenReturn(List.of(second));
+
+        List<ProductLookupDTO> results = productService.getProductsByIds(List.of(3L, 1L, 2L));
+
+        assertEquals(List.of(3L, 1L, 2L), results.stream().map(ProductLookupDTO::getId).toList());
+        assertFalse(results.get(0).isFound());
+        assertNull(results.get(0).getProduct());
+        assertEquals("Test Product", results.get(1).getProduct().getName());
+        assertEquals("Second Product", results.get(2).getProduct().getName());
+        verify(productRepository, times(1)).findDTOsByIdIn(List.of(3L, 2L));
+    }
+
+    @Test
+    void deleteProduct_PublishesChangeEvent() {
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        productService.deleteProduct(1L);
+
+        verify(productRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void getProductETag_ChangesWithVersionAndStock() {
+        when(productRepository.findRevisionById(1L)).thenReturn(Optional.of(new ProductRepository.ProductRevision() {
+            @Override
+            public Long getVersion() {
+                return 3L;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return 7;
+            }
+        }));
+
+        assertEquals(Optional.of("\"p1-3-7\""), productService.getProductETag(1L));
+        assertTrue(productService.getProductETag(2L).isEmpty());
+    }
+
     @Test
     void getProductById_NotFound() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             productService.getProductById(1L);
@@ -108,4 +187,37 @@ public class ProductServiceTest {
         assertEquals(createDTO.getName(), result.getName());
         verify(productRepository).save(any(Product.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getProductPage_ReturnsCursorWhenMoreRowsExist() {
+        Product second = new Product();
+        second.setId(2L);
+        second.setName("Second Product");
+        second.setPrice(new BigDecimal("120.00"));
+        second.setStockQuantity(5);
+        Product third = new Product();
+        third.setId(3L);
+        third.setName("Third Product");
+        third.setPrice(new BigDecimal("130.00"));
+        third.setStockQuantity(5);
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Arrays.asList(testProduct, second, third));
+
+        ProductPageDTO page = productService.getProductPage(null, 2, null, null, true, "price", "asc");
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getProductPage_RejectsCursorFromDifferentSort() {
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Arrays.asList(testProduct, testProduct));
+        ProductPageDTO page = productService.getProductPage(null, 1, null, null, null, "id", "asc");
+
+        assertThrows(InvalidRequestException.class, () -> {
+            productService.getProductPage(page.getNextCursor(), 1, null, null, null, "price", "asc");
+        });
+    }
+}
@@ -0,0 +1,186 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.dto.product.ProductUpdateDTO;
+import com.batuhanyalcin.exception.ConcurrentUpdateException;
+import com.batuhanyalcin.exception.InvalidRequestException;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import com.batuhanyalcin.service.FlashSaleService;
+import com.batuhanyalcin.service.OptimisticRetry;
+import com.batuhanyalcin.service.ProductCache;
+import com.batuhanyalcin.service.ProductSearchIndex;
+import com.batuhanyalcin.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+// Admin güncellemesi ürünü okuduktan sonra bir sipariş stok düşerse güncelleme çakışmadan uygulanmalı
+// ve siparişin düşümü korunmalı
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({ProductService.class, OptimisticRetry.class, ProductCache.class, ProductSearchIndex.class,
+        ProductUpdateConflictTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductUpdateConflictTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private ExecutorService checkout;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        // Bağlam testler arasında paylaşılır; çakışma sayacı her test için sıfırdan başlar
+        meterRegistry.clear();
+        transaction = new TransactionTemplate(transactionManager);
+        checkout = Executors.newSingleThreadExecutor();
+        product = new Product();
+        product.setName("Kalem");
+        product.setDescription("Mavi");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(20);
+        transaction.executeWithoutResult(status -> productRepository.batchInsert(List.of(product)));
+
+        // İlk okumadan hemen sonra başka bir işlemde 3 adet satılır
+        // Repository bir JDK proxy'si olduğundan casus, gerçek çağrıyı varsayılan cevabı üzerinden yapar
+        Answer<?> delegate = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        AtomicBoolean sold = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object result = delegate.answer(invocation);
+            if (sold.compareAndSet(false, true)) {
+                checkout.submit(() -> transaction.execute(status ->
+                        productRepository.reserveStock(new TreeMap<>(Map.of(product.getId(), 3))))).get();
+            }
+            return result;
+        }).when(productRepository).findById(product.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        checkout.shutdownNow();
+        transaction.executeWithoutResult(status -> productRepository.deleteAll());
+    }
+
+    // Admin formu ürünü version 0 ve stok 20 iken açmıştır
+    private ProductUpdateDTO update(int stock, Long version) {
+        ProductUpdateDTO dto = new ProductUpdateDTO();
+        dto.setName("Kalem");
+        dto.setDescription("Mavi");
+        dto.setPrice(new BigDecimal("12.50"));
+        dto.setStockQuantity(stock);
+        dto.setOriginalStockQuantity(20);
+        dto.setVersion(version);
+        return dto;
+    }
+
+    @Test
+    void updateProduct_AppliesStockDeltaWithoutUndoingCheckout() {
+        ProductResponseDTO updated = productService.updateProduct(product.getId(), update(50, 0L));
+
+        // Admin 20'yi 50 yaptı; arada satılan 3 adet korunur ve satış version'ı değiştirmediği için çakışma olmaz
+        assertEquals(47, updated.getStockQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(updated.getPrice()));
+        assertEquals(1L, updated.getVersion());
+        assertNull(meterRegistry.find("optimistic.lock.conflicts").counter());
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(47, reloaded.getStockQuantity());
+    }
+
+    @Test
+    void updateProduct_LeavesStockAloneWhenNotEdited() {
+        ProductResponseDTO updated = productService.updateProduct(product.getId(), update(20, 0L));
+
+        assertEquals(17, updated.getStockQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(updated.getPrice()));
+        assertEquals(17, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void updateProduct_RejectsStaleExpectedVersion() {
+        productService.updateProduct(product.getId(), update(20, 0L));
+
+        // Başka bir admin aynı formu version 0 ile göndermeye çalışır
+        ProductUpdateDTO stale = update(30, 0L);
+        stale.setPrice(new BigDecimal("9.00"));
+        assertThrows(ConcurrentUpdateException.class, () -> productService.updateProduct(product.getId(), stale));
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(17, reloaded.getStockQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(reloaded.getPrice()));
+    }
+
+    @Test
+    void updateProduct_RejectsStockChangeForFlashSaleProduct() {
+        when(flashSaleService.isActive(product.getId())).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class,
+                () -> productService.updateProduct(product.getId(), update(50, 0L)));
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(17, reloaded.getStockQuantity());
+        assertEquals(0, new BigDecimal("10.00").compareTo(reloaded.getPrice()));
+    }
+
+    @Test
+    void updateProduct_AllowsPriceChangeForFlashSaleProduct() {
+        when(flashSaleService.isActive(product.getId())).thenReturn(true);
+
+        // Admin stoğu değiştirmedi; yalnızca fiyat güncellenir
+        ProductResponseDTO updated = productService.updateProduct(product.getId(), update(20, 0L));
+
+        assertEquals(17, updated.getStockQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(updated.getPrice()));
+    }
+}
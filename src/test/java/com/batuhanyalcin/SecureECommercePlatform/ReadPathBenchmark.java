@@ -0,0 +1,106 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Ürün listesi okuma yolu: entity yükleyip DTO'ya kopyalama ile constructor projeksiyonu, bellek içi H2 üzerinde.
+// Bellek ayırma farkı için GC profiler ile çalıştırılır (gc.alloc.rate.norm okuma başına bayttır):
+// java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ReadPathBenchmark -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final int PRODUCTS = 2000;
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import(JpaTestConfig.class)
+    static class BenchmarkConfig {
+    }
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        // Komut satırı argümanları application.properties'teki PostgreSQL ayarlarını ezer
+        context = new SpringApplicationBuilder(BenchmarkConfig.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:read-path;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        productRepository = context.getBean(ProductRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Ürün " + i);
+            product.setDescription("Açıklama " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i % 90));
+            product.setStockQuantity(i % 50);
+            products.add(product);
+        }
+        transaction.executeWithoutResult(status -> productRepository.batchInsert(products));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Servislerdeki gibi salt okunur işlem; entity yolu da dirty-checking kopyası oluşturmaz
+    @Benchmark
+    public List<ProductResponseDTO> entityHydration() {
+        return readOnlyTransaction.execute(status -> productRepository.findAll().stream()
+                .map(ProductResponseDTO::from)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> constructorProjection() {
+        return readOnlyTransaction.execute(status -> productRepository.findAllDTOs());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReadPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,50 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.dto.product.ProductResponseDTO;
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Constructor projeksiyonu entity yükleyip DTO'ya kopyalamayla aynı sonucu vermeli; maliyet farkı ReadPathBenchmark'ta
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+public class ReadPathProjectionTest {
+
+    private static final int PRODUCTS = 2000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @Transactional(readOnly = true)
+    void productListProjection_MatchesEntityHydration() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Ürün " + i);
+            product.setDescription("Açıklama " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i % 90));
+            product.setStockQuantity(i % 50);
+            products.add(product);
+        }
+        productRepository.batchInsert(products);
+
+        List<ProductResponseDTO> entityPath = productRepository.findAll().stream()
+                .map(ProductResponseDTO::from)
+                .toList();
+        List<ProductResponseDTO> projectionPath = productRepository.findAllDTOs();
+
+        assertEquals(PRODUCTS, projectionPath.size());
+        assertEquals(entityPath, projectionPath);
+    }
+}
@@ -0,0 +1,113 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.model.Product;
+import com.batuhanyalcin.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+public class StockReservationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    @Test
+    void reserveStock_DecrementsOnlyWhenEveryRowHasEnoughStock() {
+        Product pen = product("Kalem", 5);
+        Product book = product("Defter", 1);
+        productRepository.batchInsert(List.of(pen, book));
+
+        List<Long> insufficient = productRepository.reserveStock(new TreeMap<>(Map.of(pen.getId(), 3, book.getId(), 2)));
+
+        assertEquals(List.of(book.getId()), insufficient);
+        Product reloaded = productRepository.findById(pen.getId()).orElseThrow();
+        assertEquals(2, reloaded.getStockQuantity());
+        assertEquals(0L, reloaded.getVersion());
+        assertEquals(1, productRepository.findById(book.getId()).orElseThrow().getStockQuantity());
+    }
+
+    // Rezervasyon version'ı artırmaz; başka düğümlerin katalog görüntüsü değişimi stok toplamından fark eder
+    @Test
+    void findCatalogFingerprint_ChangesWhenStockIsReserved() {
+        Product pen = product("Kalem", 5);
+        productRepository.batchInsert(List.of(pen));
+        ProductRepository.CatalogFingerprint before = productRepository.findCatalogFingerprint();
+
+        productRepository.reserveStock(new TreeMap<>(Map.of(pen.getId(), 2)));
+
+        ProductRepository.CatalogFingerprint after = productRepository.findCatalogFingerprint();
+        assertEquals(before.getProductCount(), after.getProductCount());
+        assertEquals(pen.getId(), after.getMaxId());
+        assertEquals(before.getVersionSum(), after.getVersionSum());
+        assertEquals(before.getStockSum() - 2, after.getStockSum());
+    }
+
+    // Her iş parçacığı kendi işleminde rezervasyon yapar; satılan miktar hiçbir zaman stoğu aşmamalı
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentReservations_NeverOversell() throws Exception {
+        int stock = 10;
+        int buyers = 32;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Product product = product("Son Fırsat", stock);
+        transaction.executeWithoutResult(status -> productRepository.batchInsert(List.of(product)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transaction.execute(status ->
+                            productRepository.reserveStock(new TreeMap<>(Map.of(product.getId(), 1))).isEmpty());
+                }));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    sold++;
+                }
+            }
+
+            assertEquals(stock, sold);
+            assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        } finally {
+            executor.shutdownNow();
+            transaction.executeWithoutResult(status -> productRepository.deleteById(product.getId()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.model.User;
+import com.batuhanyalcin.repository.TokenRevocationRepository;
+import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.security.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hesap silme ile aynı işlemde yazılan iptal kalıcı olmalı ve başka bir düğüm onu okuyabilmeli
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import(TokenRevocationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TokenRevocationPersistenceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        tokenRevocationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void revokeAll_SurvivesUserDeletionAndReachesOtherNodes() {
+        User user = new User();
+        user.setUsername("silinecek");
+        user.setEmail("silinecek@test.com");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_USER"));
+        userRepository.save(user);
+        Date issuedBefore = new Date(System.currentTimeMillis() - 1000);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tokenRevocationService.revokeAll(user.getId());
+            userRepository.deleteById(user.getId());
+        });
+
+        assertTrue(tokenRevocationRepository.existsById(user.getId()));
+
+        // İptali yapan düğümden habersiz ikinci düğüm yalnızca tablodan okur
+        TokenRevocationService otherNode = new TokenRevocationService();
+        ReflectionTestUtils.setField(otherNode, "tokenRevocationRepository", tokenRevocationRepository);
+        otherNode.refresh();
+
+        assertTrue(otherNode.isRevoked(user.getId(), Jwts.claims().setIssuedAt(issuedBefore)));
+        assertTrue(tokenRevocationService.isRevoked(user.getId(), Jwts.claims().setIssuedAt(issuedBefore)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.batuhanyalcin.SecureECommercePlatform;
+
+import com.batuhanyalcin.model.TokenRevocation;
+import com.batuhanyalcin.repository.TokenRevocationRepository;
+import com.batuhanyalcin.security.JwtUtils;
+import com.batuhanyalcin.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    private static long epochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Claims issuedAt(LocalDateTime time) {
+        return Jwts.claims()
+                .setIssuedAt(Date.from(time.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private static Claims issuedAtMillis(long millis) {
+        Claims claims = Jwts.claims().setIssuedAt(new Date(millis));
+        claims.put(JwtUtils.CLAIM_ISSUED_AT_MILLIS, millis);
+        return claims;
+    }
+
+    @Test
+    void revokeAll_PersistsAndRejectsTokensIssuedBefore() {
+        tokenRevocationService.revokeAll(7L);
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getUserId());
+        LocalDateTime revokedAt = saved.getValue().getRevokedAt();
+
+        assertTrue(tokenRevocationService.isRevoked(7L, issuedAt(revokedAt.minusMinutes(5))));
+        assertFalse(tokenRevocationService.isRevoked(7L, issuedAt(revokedAt.plusSeconds(1))));
+        assertFalse(tokenRevocationService.isRevoked(8L, issuedAt(revokedAt.minusMinutes(5))));
+    }
+
+    // iat saniyeliktir; iptalle aynı saniyede verilen token'lar milisaniyelik claim ile ayrılır
+    @Test
+    void isRevoked_ComparesAtMillisecondPrecision() {
+        tokenRevocationService.revokeAll(7L);
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(saved.capture());
+        long revokedAt = epochMilli(saved.getValue().getRevokedAt());
+
+        assertTrue(tokenRevocationService.isRevoked(7L, issuedAtMillis(revokedAt - 1)));
+        assertTrue(tokenRevocationService.isRevoked(7L, issuedAtMillis(revokedAt)));
+        assertFalse(tokenRevocationService.isRevoked(7L, issuedAtMillis(revokedAt + 1)));
+    }
+
+    // Diğer düğümlerin iptalleri veritabanından okunur; token ömründen eski iptaller bellekte tutulmaz
+    @Test
+    void refresh_LoadsRevocationsFromOtherNodesAndPrunesExpired() {
+        LocalDateTime recent = LocalDateTime.now().minusMinutes(1);
+        when(tokenRevocationRepository.findByRevokedAtAfter(any())).thenReturn(List.of(
+                new TokenRevocation(3L, recent),
+                new TokenRevocation(4L, LocalDateTime.now().minusHours(3))));
+
+        tokenRevocationService.refresh();
+
+        assertTrue(tokenRevocationService.isRevoked(3L, issuedAt(recent.minusMinutes(10))));
+        assertFalse(tokenRevocationService.isRevoked(4L, issuedAt(recent.minusHours(4))));
+        assertEquals(1, tokenRevocationService.size());
+    }
+}
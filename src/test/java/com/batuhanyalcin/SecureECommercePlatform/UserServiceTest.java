@@ -5,6 +5,7 @@ import com.batuhanyalcin.dto.auth.RegisterRequestDTO;
 import com.batuhanyalcin.exception.ResourceNotFoundException;
 import com.batuhanyalcin.model.User;
 import com.batuhanyalcin.repository.UserRepository;
+import com.batuhanyalcin.security.TokenRevocationService;
 import com.batuhanyalcin.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +34,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private UserService userService;
 
@@ -75,7 +80,9 @@ public class UserServiceTest {
 
     @Test
     void getUserById_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findDTOById(1L)).thenReturn(Optional.of(
+                new UserDTO(1L, testUser.getUsername(), testUser.getEmail(), null, null, null, null)));
+        when(userRepository.findRoleRowsById(1L)).thenReturn(List.<Object[]>of(new Object[]{1L, "ROLE_USER"}));
 
         UserDTO result = userService.getUserById(1L);
         
@@ -83,11 +90,12 @@ public class UserServiceTest {
 
         assertNotNull(result);
         assertEquals(testUser.getUsername(), result.getUsername());
+        assertEquals(Set.of("ROLE_USER"), result.getRoles());
     }
 
     @Test
     void getUserById_NotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.getUserById(1L);
@@ -96,7 +104,10 @@ public class UserServiceTest {
 
     @Test
     void getAllUsers_Success() {
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
+        when(userRepository.findAllDTOs()).thenReturn(Arrays.asList(
+                new UserDTO(1L, testUser.getUsername(), testUser.getEmail(), null, null, null, null)));
+        when(userRepository.findAllRoleRows()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "ROLE_USER"}, new Object[]{1L, "ROLE_ADMIN"}));
 
         List<UserDTO> results = userService.getAllUsers();
         
@@ -105,6 +116,7 @@ public class UserServiceTest {
         assertNotNull(results);
         assertFalse(results.isEmpty());
         assertEquals(1, results.size());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), results.get(0).getRoles());
     }
 
     @Test
@@ -117,4 +129,18 @@ public class UserServiceTest {
         assertEquals(200, response.getStatusCodeValue());
         verify(userRepository).save(any(User.class));
     }
-} 
\ No newline at end of file
+
+    // Şifre değiştiğinde kullanıcının mevcut token'ları iptal edilir
+    @Test
+    void changePassword_RevokesExistingTokens() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("pass1234", "pass1234")).thenReturn(true);
+        when(passwordEncoder.encode("yeniSifre1")).thenReturn("encoded");
+
+        userService.changePassword(1L, "pass1234", "yeniSifre1");
+
+        verify(tokenRevocationService).revokeAll(testUser.getId());
+        verify(userRepository).save(testUser);
+        assertEquals("encoded", testUser.getPassword());
+    }
+}